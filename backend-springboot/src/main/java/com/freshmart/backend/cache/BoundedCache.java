@@ -0,0 +1,104 @@
+package com.freshmart.backend.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small LRU cache with a per-entry time-to-live and hit/miss/eviction counters.
+ * Every invalidation bumps a generation number; a value loaded while an invalidation happened
+ * is returned to its caller but not stored, so a slow reader cannot re-insert pre-write data.
+ * An optional listener is told about keys dropped for size or age (not about invalidations); it runs
+ * under the cache lock, so it must be cheap.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Consumer<K> onEvict;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedCache(int maxSize, long ttlSeconds) {
+        this(maxSize, ttlSeconds, key -> { });
+    }
+
+    public BoundedCache(int maxSize, long ttlSeconds, Consumer<K> onEvict) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.onEvict = onEvict;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.storedAt() < ttlNanos) {
+                hits++;
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+                onEvict.accept(key);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        synchronized (this) {
+            if (value != null && loadGeneration == generation) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+                trim();
+            }
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        trim();
+    }
+
+    public synchronized V invalidate(K key) {
+        generation++;
+        Entry<V> removed = entries.remove(key);
+        return removed == null ? null : removed.value();
+    }
+
+    /** Drops every entry whose value matches; scans the whole cache, so keep it off hot paths. */
+    public synchronized void invalidateIf(Predicate<V> condition) {
+        generation++;
+        entries.values().removeIf(entry -> condition.test(entry.value()));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            K key = iterator.next().getKey();
+            iterator.remove();
+            evictions++;
+            onEvict.accept(key);
+        }
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.freshmart.backend.cache;
+
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions) {
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,46 @@
+package com.freshmart.backend.cache;
+
+import com.freshmart.backend.catalog.FlashSaleScheduler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional catalog GETs with 304 before the controller runs. The tag is read before any data is,
+ * so a write racing with the request can only make the client revalidate once more, never keep stale data.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private static final String CATEGORY_PATH = "/api/categories";
+    private static final String FLASH_SALE_PATH = "/api/products/flash-sale";
+
+    private final CatalogVersion catalogVersion;
+    private final FlashSaleScheduler flashSaleScheduler;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String etag = path.startsWith(CATEGORY_PATH) ? catalogVersion.categoryETag() : catalogVersion.productETag();
+        if (path.equals(FLASH_SALE_PATH) && flashSaleScheduler.isReady()) {
+            etag = catalogVersion.flashSaleETag(flashSaleScheduler.listingVersion());
+        } else if (path.equals(FLASH_SALE_PATH)) {
+            // Sales also start and end with time, not only with writes
+            etag = etag.substring(0, etag.length() - 1) + "-" + flashSaleScheduler.listingVersion() + "\"";
+        }
+
+        // Let clients store the response but always revalidate it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,51 @@
+package com.freshmart.backend.cache;
+
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counters bumped after every committed product or category write, used to build ETags for
+ * catalog reads. The boot epoch keeps tags from a previous run from matching after a restart. Tags are weak:
+ * the same tag stands for the gzip and the identity encoding of a response. The counters are bumped after
+ * the caches have dropped their entries (see {@link CatalogListenerOrder}).
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+
+    @Order(CatalogListenerOrder.VERSION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @Order(CatalogListenerOrder.VERSION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+
+    /** Tag for responses built from products (they may embed category data too). */
+    public String productETag() {
+        return "W/\"" + epoch + "-" + categories.get() + "." + products.get() + "\"";
+    }
+
+    /** Tag for the scheduled flash-sale listing, which is replaced as a whole. */
+    public String flashSaleETag(String listingVersion) {
+        return "W/\"" + epoch + "-" + listingVersion + "\"";
+    }
+
+    /** Tag for responses built from categories only. */
+    public String categoryETag() {
+        return "W/\"" + epoch + "-" + categories.get() + "\"";
+    }
+}
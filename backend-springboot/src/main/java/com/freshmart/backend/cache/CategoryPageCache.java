@@ -0,0 +1,155 @@
+package com.freshmart.backend.cache;
+
+import com.freshmart.backend.dto.ProductCardDto;
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.repository.CategoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the first pages of each category listing. When a product in a category changes, that category's
+ * pages are dropped at commit and the pages that had been requested are recomputed shortly after in the
+ * background, so browsing keeps hitting precomputed pages. Bursts of writes to one category coalesce
+ * into a single refresh. Only slugs of existing categories get a listing, so arbitrary URLs cannot grow the cache.
+ */
+@Slf4j
+@Component
+public class CategoryPageCache {
+
+    private final CategoryRepository categoryRepository;
+    private final int cachedPages;
+    private final int maxPageSize;
+    private final long ttlSeconds;
+    private final long refreshDelayMillis;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    /** Slugs of the existing categories; null until loaded and after a category write. */
+    private volatile Set<String> categorySlugs;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "category-page-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CategoryPageCache(
+            CategoryRepository categoryRepository,
+            @Value("${catalog.cache.category-pages.pages:3}") int cachedPages,
+            @Value("${catalog.cache.category-pages.max-page-size:48}") int maxPageSize,
+            @Value("${catalog.cache.category-pages.ttl-seconds:300}") long ttlSeconds,
+            @Value("${catalog.cache.category-pages.refresh-delay-ms:200}") long refreshDelayMillis
+    ) {
+        this.categoryRepository = categoryRepository;
+        this.cachedPages = cachedPages;
+        this.maxPageSize = maxPageSize;
+        this.ttlSeconds = ttlSeconds;
+        this.refreshDelayMillis = refreshDelayMillis;
+    }
+
+    /**
+     * Returns the cached page, loading it on a miss. Only the first pages up to the configured size are kept;
+     * callers must pass a sort the listing supports, since every distinct key takes a slot.
+     */
+    public Page<ProductCardDto> get(PageKey key, Supplier<Page<ProductCardDto>> loader) {
+        if (key.page() >= cachedPages || key.size() > maxPageSize || !categorySlugs().contains(key.categorySlug())) {
+            return loader.get();
+        }
+        Listing listing = listings.computeIfAbsent(key.categorySlug(), slug -> new Listing(
+                new BoundedCache<>(cachedPages * 16, ttlSeconds), new ConcurrentHashMap<>(), new AtomicBoolean()));
+        listing.loaders().put(key, loader);
+        return listing.pages().get(key, k -> loader.get());
+    }
+
+    @Order(CatalogListenerOrder.CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.previous());
+        invalidate(event.snapshot());
+    }
+
+    @Order(CatalogListenerOrder.CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.countOnly()) {
+            return;
+        }
+        categorySlugs = null;
+    }
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+        listings.forEach((slug, listing) -> stats.put(slug, listing.pages().stats()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private Set<String> categorySlugs() {
+        Set<String> slugs = categorySlugs;
+        if (slugs != null) {
+            return slugs;
+        }
+        synchronized (this) {
+            if (categorySlugs == null) {
+                categorySlugs = categoryRepository.findAll().stream()
+                        .map(Category::getSlug)
+                        .collect(Collectors.toUnmodifiableSet());
+                // Listings of deleted or renamed categories are never asked for again
+                listings.keySet().retainAll(categorySlugs);
+            }
+            return categorySlugs;
+        }
+    }
+
+    private void invalidate(ProductSnapshot snapshot) {
+        Listing listing = snapshot == null || snapshot.categorySlug() == null ? null : listings.get(snapshot.categorySlug());
+        if (listing == null) {
+            return;
+        }
+        listing.pages().clear();
+        if (listing.refreshQueued().compareAndSet(false, true)) {
+            refresher.schedule(() -> refresh(listing), refreshDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh(Listing listing) {
+        listing.refreshQueued().set(false);
+        listing.loaders().forEach((key, loader) -> {
+            try {
+                listing.pages().get(key, k -> loader.get());
+            } catch (RuntimeException e) {
+                log.warn("Could not precompute category page {}", key, e);
+            }
+        });
+    }
+
+    public record PageKey(String categorySlug, String sortBy, String sortOrder, int page, int size) {
+    }
+
+    private record Listing(
+            BoundedCache<PageKey, Page<ProductCardDto>> pages,
+            Map<PageKey, Supplier<Page<ProductCardDto>>> loaders,
+            AtomicBoolean refreshQueued
+    ) {
+    }
+}
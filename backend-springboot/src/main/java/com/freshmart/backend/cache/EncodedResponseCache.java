@@ -0,0 +1,208 @@
+package com.freshmart.backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.catalog.FlashSaleScheduler;
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully encoded {@code {"success":true,"data":...}} responses for hot catalog reads, kept as UTF-8 JSON bytes
+ * plus a gzip copy so a hit does no mapping, serialization or compression. Product writes drop the affected
+ * entries at commit and re-encode them shortly after in the background. The flash-sale listing is keyed on
+ * {@link FlashSaleScheduler#listingVersion()}, so a sale starting or ending
+ * gets a new entry instead of the old body under the new ETag.
+ */
+@Slf4j
+@Component
+public class EncodedResponseCache {
+
+    public static final String BEST_SELLING = "listing:best-selling";
+
+    private static final String FLASH_SALE_PREFIX = "listing:flash-sale:";
+    private static final String PRODUCT_PREFIX = "product:";
+
+    private final ObjectMapper objectMapper;
+    private final FlashSaleScheduler flashSaleScheduler;
+    private final BoundedCache<String, EncodedResponse> entries;
+    private final long refreshDelayMillis;
+    private final Map<String, Supplier<Object>> loaders = new ConcurrentHashMap<>();
+    private final Map<String, Long> productCategories = new ConcurrentHashMap<>();
+    private final Set<String> flashSaleKeys = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "encoded-response-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EncodedResponseCache(
+            ObjectMapper objectMapper,
+            FlashSaleScheduler flashSaleScheduler,
+            @Value("${catalog.cache.encoded.max-size:5000}") int maxSize,
+            @Value("${catalog.cache.encoded.ttl-seconds:300}") long ttlSeconds,
+            @Value("${catalog.cache.encoded.refresh-delay-ms:100}") long refreshDelayMillis
+    ) {
+        this.objectMapper = objectMapper;
+        this.flashSaleScheduler = flashSaleScheduler;
+        this.entries = new BoundedCache<>(maxSize, ttlSeconds, this::forget);
+        this.refreshDelayMillis = refreshDelayMillis;
+    }
+
+    public static String productKey(String slug) {
+        return PRODUCT_PREFIX + slug;
+    }
+
+    public static String flashSaleKey(String listingVersion) {
+        return FLASH_SALE_PREFIX + listingVersion;
+    }
+
+    /** Returns the encoded envelope for {@code key}, building it from {@code data} on a miss. */
+    public EncodedResponse get(String key, Supplier<Object> data) {
+        EncodedResponse response = entries.get(key, k -> load(k, data));
+        loaders.putIfAbsent(key, data);
+        if (key.startsWith(FLASH_SALE_PREFIX)) {
+            flashSaleKeys.add(key);
+        }
+        return response;
+    }
+
+    @Order(CatalogListenerOrder.ENCODED_CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateProduct(event.previous());
+        invalidateProduct(event.snapshot());
+        invalidate(BEST_SELLING);
+        // Older flash-sale versions are never asked for again, so they are dropped rather than re-encoded;
+        // the current one stays until the scheduler's next rebuild moves the listing to a new key
+        String current = flashSaleKey(flashSaleScheduler.listingVersion());
+        flashSaleKeys.stream()
+                .filter(key -> !key.equals(current))
+                .toList()
+                .forEach(key -> {
+                    entries.invalidate(key);
+                    forget(key);
+                });
+    }
+
+    @Order(CatalogListenerOrder.ENCODED_CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Product details embed their category; a null id means several categories changed
+        productCategories.entrySet().stream()
+                .filter(entry -> event.categoryId() == null || event.categoryId().equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::invalidate);
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void invalidateProduct(ProductSnapshot snapshot) {
+        if (snapshot != null && snapshot.slug() != null) {
+            invalidate(productKey(snapshot.slug()));
+        }
+    }
+
+    private void invalidate(String key) {
+        entries.invalidate(key);
+        if (loaders.containsKey(key) && pendingRefresh.add(key)) {
+            refresher.schedule(() -> refresh(key), refreshDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh(String key) {
+        pendingRefresh.remove(key);
+        Supplier<Object> loader = loaders.get(key);
+        if (loader == null) {
+            return;
+        }
+        try {
+            entries.get(key, k -> load(k, loader));
+        } catch (RuntimeException e) {
+            // Deleted products and the like: forget the key until it is requested again
+            forget(key);
+            log.debug("Dropped encoded response {}: {}", key, e.getMessage());
+        }
+    }
+
+    private EncodedResponse load(String key, Supplier<Object> loader) {
+        Object data = loader.get();
+        if (data instanceof ProductDetailDto detail && detail.getCategory() != null) {
+            productCategories.put(key, detail.getCategory().getId());
+        }
+        return encode(data);
+    }
+
+    // Evicted or failed keys lose their loader too, so the maps only hold what the cache holds
+    private void forget(String key) {
+        loaders.remove(key);
+        productCategories.remove(key);
+        flashSaleKeys.remove(key);
+    }
+
+    private EncodedResponse encode(Object data) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", true);
+        envelope.put("data", data);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(envelope);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new EncodedResponse(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record EncodedResponse(byte[] json, byte[] gzip) {
+
+        /** Writes the gzip copy when the client accepts it, the plain bytes otherwise. */
+        public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+            boolean gzipAccepted = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzipAccepted) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return builder.body(json);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.freshmart.backend.cache;
+
+import com.freshmart.backend.event.OrderChangedEvent;
+import com.freshmart.backend.event.WishlistChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ranked "for you" product ids per user. Only ids are cached so cards are always read fresh; a user's
+ * entry is dropped when their wishlist or orders change, and otherwise ages out with the TTL.
+ */
+@Component
+public class PersonalizedFeedCache {
+
+    private final BoundedCache<Long, List<Long>> byUser;
+
+    public PersonalizedFeedCache(
+            @Value("${catalog.cache.feed.max-size:20000}") int maxSize,
+            @Value("${catalog.cache.feed.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.byUser = new BoundedCache<>(maxSize, ttlSeconds);
+    }
+
+    public List<Long> get(Long userId, Function<Long, List<Long>> loader) {
+        return byUser.get(userId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWishlistChanged(WishlistChangedEvent event) {
+        byUser.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        byUser.invalidate(event.userId());
+    }
+
+    public CacheStats stats() {
+        return byUser.stats();
+    }
+}
@@ -0,0 +1,78 @@
+package com.freshmart.backend.cache;
+
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caches product detail DTOs by slug and by id. Entries are dropped right after a product or
+ * category write commits, before the writing request returns.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final BoundedCache<String, ProductDetailDto> bySlug;
+    private final BoundedCache<Long, ProductDetailDto> byId;
+
+    public ProductDetailCache(
+            @Value("${catalog.cache.product-detail.max-size:10000}") int maxSize,
+            @Value("${catalog.cache.product-detail.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.bySlug = new BoundedCache<>(maxSize, ttlSeconds);
+        this.byId = new BoundedCache<>(maxSize, ttlSeconds);
+    }
+
+    public ProductDetailDto getBySlug(String slug, Function<String, ProductDetailDto> loader) {
+        return bySlug.get(slug, loader);
+    }
+
+    public ProductDetailDto getById(Long id, Function<Long, ProductDetailDto> loader) {
+        return byId.get(id, loader);
+    }
+
+    @Order(CatalogListenerOrder.CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDetailDto cached = byId.invalidate(event.productId());
+        if (cached != null) {
+            bySlug.invalidate(cached.getSlug());
+        }
+        invalidateSlug(event.previous());
+        invalidateSlug(event.snapshot());
+    }
+
+    @Order(CatalogListenerOrder.CACHE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Details embed a category summary (with its product count); a null id means several categories changed
+        if (event.categoryId() == null) {
+            bySlug.clear();
+            byId.clear();
+            return;
+        }
+        Predicate<ProductDetailDto> inCategory = detail ->
+                detail.getCategory() != null && event.categoryId().equals(detail.getCategory().getId());
+        bySlug.invalidateIf(inCategory);
+        byId.invalidateIf(inCategory);
+    }
+
+    public Map<String, CacheStats> stats() {
+        return Map.of("bySlug", bySlug.stats(), "byId", byId.stats());
+    }
+
+    private void invalidateSlug(ProductSnapshot snapshot) {
+        if (snapshot != null && snapshot.slug() != null) {
+            bySlug.invalidate(snapshot.slug());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.ProductRepository.ProductSales;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ranked by units sold, globally and per category slug. Kept current from committed
+ * {@link ProductChangedEvent}s (the order path moves {@code sold} through those) and periodically
+ * reconciled against the products table. Reading the top N walks N entries of an ordered set.
+ */
+@Component
+@RequiredArgsConstructor
+public class BestSellerLeaderboard {
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::sold).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableSet<Entry> global = new TreeSet<>(RANKING);
+    private final Map<String, NavigableSet<Entry>> byCategory = new HashMap<>();
+
+    @Value("${catalog.leaderboard.enabled:true}")
+    private boolean enabled;
+
+    /** Ids changed by events while a reconciliation reads the table; their live value wins. */
+    private Set<Long> changedDuringReconcile;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${catalog.leaderboard.reconcile-interval-ms:600000}",
+            fixedDelayString = "${catalog.leaderboard.reconcile-interval-ms:600000}"
+    )
+    public void scheduledReconcile() {
+        if (enabled && ready) {
+            reconcile();
+        }
+    }
+
+    @Order(CatalogListenerOrder.INDEX)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedDuringReconcile != null) {
+                changedDuringReconcile.add(event.productId());
+            }
+            if (event.type() == ProductChangedEvent.Type.DELETED) {
+                remove(event.productId());
+            } else {
+                ProductSnapshot snapshot = event.snapshot();
+                put(new Entry(snapshot.id(), snapshot.categorySlug(), snapshot.sold() == null ? 0 : snapshot.sold()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of the best sellers, best first.
+     *
+     * @param categorySlug category to rank within, or null for the whole catalog
+     */
+    public List<Long> top(String categorySlug, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> ranking = categorySlug == null ? global : byCategory.get(categorySlug);
+            if (ranking == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Entry entry : ranking) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(entry.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String categorySlug) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> ranking = categorySlug == null ? global : byCategory.get(categorySlug);
+            return ranking == null ? 0 : ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void reconcile() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReconcile = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductSales> rows = null;
+        try {
+            rows = productRepository.findAllSales();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                Set<Long> changed = changedDuringReconcile;
+                changedDuringReconcile = null;
+                if (rows != null) {
+                    apply(rows, changed);
+                    ready = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void apply(List<ProductSales> rows, Set<Long> changed) {
+        Set<Long> present = new HashSet<>();
+        for (ProductSales row : rows) {
+            present.add(row.getId());
+            if (!changed.contains(row.getId())) {
+                Entry entry = new Entry(row.getId(), row.getCategorySlug(), row.getSold() == null ? 0 : row.getSold());
+                if (!entry.equals(entries.get(entry.id()))) {
+                    put(entry);
+                }
+            }
+        }
+        for (Long id : new ArrayList<>(entries.keySet())) {
+            if (!present.contains(id) && !changed.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.id(), entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        global.add(entry);
+        if (entry.categorySlug() != null) {
+            byCategory.computeIfAbsent(entry.categorySlug(), key -> new TreeSet<>(RANKING)).add(entry);
+        }
+    }
+
+    private void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        global.remove(entry);
+        NavigableSet<Entry> ranking = entry.categorySlug() == null ? null : byCategory.get(entry.categorySlug());
+        if (ranking != null) {
+            ranking.remove(entry);
+            if (ranking.isEmpty()) {
+                byCategory.remove(entry.categorySlug());
+            }
+        }
+    }
+
+    private record Entry(long id, String categorySlug, int sold) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.dto.PriceStatsDto;
+import com.freshmart.backend.dto.ProductFacetsDto;
+import com.freshmart.backend.dto.SuggestionDto;
+import com.freshmart.backend.event.CatalogListenerOrder;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.pricing.Vnd;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-process catalog answering filter + sort + page queries from {@link CatalogIndex}.
+ * Loaded once the application is ready and kept coherent from committed {@link ProductChangedEvent}s.
+ * Events from concurrent transactions may arrive out of commit order, so the index is periodically
+ * reloaded from the table; events arriving during a load are replayed on top of it.
+ * Until the first load completes (or when disabled) callers fall back to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEngine {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogIndex index = new CatalogIndex();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final SuggestIndex suggestIndex = new SuggestIndex();
+
+    @Value("${catalog.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.facets.price-buckets:20000,50000,100000,200000}")
+    private long[] priceBucketBounds;
+
+    private volatile boolean ready;
+    /** Events received while a load reads the table; null when no load is running. */
+    private List<ProductChangedEvent> pendingEvents = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${catalog.engine.reconcile-interval-ms:600000}",
+            fixedDelayString = "${catalog.engine.reconcile-interval-ms:600000}"
+    )
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        if (!enabled || !ready) {
+            return;
+        }
+        synchronized (this) {
+            pendingEvents = new ArrayList<>();
+        }
+        rebuild();
+    }
+
+    @Order(CatalogListenerOrder.INDEX)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+                if (!ready) {
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    @Order(CatalogListenerOrder.INDEX)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (ready && !event.countOnly()) {
+            suggestIndex.renameCategories(categoryNames());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean supports(String sortBy) {
+        return ready && CatalogSortField.fromProperty(sortBy) != null;
+    }
+
+    public CatalogPage query(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            int page,
+            int size
+    ) {
+        CatalogQuery query = filters(category, search, minPrice, maxPrice, origin, brand, inStock)
+                .sortField(CatalogSortField.fromProperty(sortBy))
+                .descending("desc".equalsIgnoreCase(sortOrder))
+                .page(page)
+                .size(size)
+                .build();
+        return index.query(query);
+    }
+
+    public CatalogPage queryAfter(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            CatalogSortField sortField,
+            boolean descending,
+            ProductCursor cursor,
+            int size
+    ) {
+        CatalogQuery query = filters(category, search, minPrice, maxPrice, origin, brand, inStock)
+                .sortField(sortField)
+                .descending(descending)
+                .afterKey(cursor == null ? null : cursor.indexKey())
+                .afterId(cursor == null ? null : cursor.id())
+                .size(size)
+                .build();
+        return index.query(query);
+    }
+
+    public ProductFacetsDto facets(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock
+    ) {
+        CatalogQuery query = filters(category, search, minPrice, maxPrice, origin, brand, inStock).build();
+        return index.facets(query, priceBucketBounds);
+    }
+
+    public PriceStatsDto priceStats(
+            String category,
+            String search,
+            String origin,
+            String brand,
+            Boolean inStock,
+            int bucketCount
+    ) {
+        CatalogQuery query = filters(category, search, null, null, origin, brand, inStock).build();
+        return index.priceStats(query, bucketCount);
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, Math.min(limit, SuggestIndex.LIMIT)).stream()
+                .map(suggestion -> SuggestionDto.builder()
+                        .type(suggestion.type())
+                        .label(suggestion.label())
+                        .value(suggestion.value())
+                        .sold(suggestion.sold())
+                        .build())
+                .toList();
+    }
+
+    public List<String> brands() {
+        return index.distinctBrands();
+    }
+
+    public List<String> origins() {
+        return index.distinctOrigins();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private CatalogQuery.CatalogQueryBuilder filters(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock
+    ) {
+        return CatalogQuery.builder()
+                .category(category)
+                .brand(brand)
+                .origin(origin)
+                .minPrice(minPrice == null ? null : Vnd.toMinorUnits(minPrice, RoundingMode.CEILING))
+                .maxPrice(maxPrice == null ? null : Vnd.toMinorUnits(maxPrice, RoundingMode.FLOOR))
+                .inStock(inStock)
+                .searchScores(search == null || search.isBlank() ? null : searchIndex.search(search));
+    }
+
+    private void rebuild() {
+        List<ProductSnapshot> snapshots = productRepository.findAll().stream()
+                .map(ProductSnapshot::of)
+                .toList();
+        index.rebuild(snapshots);
+        searchIndex.rebuild(snapshots);
+        suggestIndex.rebuild(snapshots, categoryNames());
+
+        synchronized (this) {
+            pendingEvents.forEach(this::apply);
+            pendingEvents = null;
+            ready = true;
+        }
+    }
+
+    private Map<String, String> categoryNames() {
+        return categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getSlug, Category::getName, (first, second) -> first));
+    }
+
+    private void apply(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            index.remove(event.productId());
+            searchIndex.remove(event.productId());
+            suggestIndex.remove(event.productId());
+        } else {
+            index.upsert(event.snapshot());
+            searchIndex.upsert(event.snapshot());
+            suggestIndex.upsert(event.snapshot());
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.dto.PriceStatsDto;
+import com.freshmart.backend.dto.ProductFacetsDto;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.pricing.Vnd;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented copy of the product table.
+ * Every product occupies a slot; numeric attributes live in primitive arrays indexed by slot,
+ * string attributes are dictionary-encoded with one bitmap per value, and each sortable column
+ * keeps a permutation of slots in key order.
+ */
+class CatalogIndex {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+
+    private final ValueDictionary categories = new ValueDictionary();
+    private final ValueDictionary brands = new ValueDictionary();
+    private final ValueDictionary origins = new ValueDictionary();
+
+    private final Map<CatalogSortField, SortedColumn> sortedColumns = new EnumMap<>(CatalogSortField.class);
+
+    private enum Facet {
+        CATEGORY, BRAND, ORIGIN, AVAILABILITY, PRICE
+    }
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] stocks = new int[INITIAL_CAPACITY];
+    private long[] solds = new long[INITIAL_CAPACITY];
+    private long[] ratings = new long[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private int[] brandCodes = new int[INITIAL_CAPACITY];
+    private int[] originCodes = new int[INITIAL_CAPACITY];
+    private int highWaterMark;
+
+    CatalogIndex() {
+        sortedColumns.put(CatalogSortField.SOLD, new SortedColumn(slot -> solds[slot], slot -> ids[slot]));
+        sortedColumns.put(CatalogSortField.PRICE, new SortedColumn(slot -> prices[slot], slot -> ids[slot]));
+        sortedColumns.put(CatalogSortField.RATING, new SortedColumn(slot -> ratings[slot], slot -> ids[slot]));
+        sortedColumns.put(CatalogSortField.CREATED_AT, new SortedColumn(slot -> createdAts[slot], slot -> ids[slot]));
+    }
+
+    void rebuild(Collection<ProductSnapshot> products) {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            freeSlots.clear();
+            live.clear();
+            inStock.clear();
+            categories.reset();
+            brands.reset();
+            origins.reset();
+            sortedColumns.values().forEach(SortedColumn::clear);
+            highWaterMark = 0;
+            products.forEach(this::write);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsert(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            write(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(productId);
+            if (slot != null) {
+                unlink(slot);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    CatalogPage query(CatalogQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = filter(query, null);
+            int total = matches.cardinality();
+            if (query.getAfterId() != null) {
+                return queryAfter(matches, total, query);
+            }
+
+            int offset = query.getPage() * query.getSize();
+            boolean hasNext = (long) offset + query.getSize() < total;
+            List<Long> pageIds = new ArrayList<>(Math.min(query.getSize(), Math.max(total - offset, 0)));
+            if (offset >= total) {
+                return new CatalogPage(pageIds, total, false);
+            }
+
+            if (query.getSortField() == CatalogSortField.RELEVANCE && query.getSearchScores() != null) {
+                rankByScore(matches, query.getSearchScores(), query.isDescending()).stream()
+                        .skip(offset)
+                        .limit(query.getSize())
+                        .forEach(slot -> pageIds.add(ids[slot]));
+                return new CatalogPage(pageIds, total, hasNext);
+            }
+
+            SortedColumn column = sortedColumns.get(query.getSortField() == CatalogSortField.RELEVANCE
+                    ? CatalogSortField.SOLD
+                    : query.getSortField());
+            int seen = 0;
+            for (int i = 0; i < column.size() && pageIds.size() < query.getSize(); i++) {
+                int slot = column.slotAt(query.isDescending() ? column.size() - 1 - i : i);
+                if (matches.get(slot) && seen++ >= offset) {
+                    pageIds.add(ids[slot]);
+                }
+            }
+            return new CatalogPage(pageIds, total, hasNext);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant: resumes directly after (afterKey, afterId) in the sorted column instead of skipping an offset.
+     */
+    private CatalogPage queryAfter(BitSet matches, int total, CatalogQuery query) {
+        SortedColumn column = sortedColumns.get(query.getSortField());
+        int step = query.isDescending() ? -1 : 1;
+        int position = query.isDescending()
+                ? column.bound(query.getAfterKey(), query.getAfterId(), false) - 1
+                : column.bound(query.getAfterKey(), query.getAfterId(), true);
+
+        List<Long> pageIds = new ArrayList<>(query.getSize());
+        boolean hasNext = false;
+        for (; position >= 0 && position < column.size(); position += step) {
+            int slot = column.slotAt(position);
+            if (!matches.get(slot)) {
+                continue;
+            }
+            if (pageIds.size() == query.getSize()) {
+                hasNext = true;
+                break;
+            }
+            pageIds.add(ids[slot]);
+        }
+        return new CatalogPage(pageIds, total, hasNext);
+    }
+
+    private List<Integer> rankByScore(BitSet matches, Map<Long, Double> scores, boolean bestFirst) {
+        List<Integer> ranked = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            ranked.add(slot);
+        }
+        Comparator<Integer> byScore = Comparator.<Integer>comparingDouble(slot -> scores.get(ids[slot]))
+                .thenComparingLong(slot -> ids[slot]);
+        ranked.sort(bestFirst ? byScore.reversed() : byScore);
+        return ranked;
+    }
+
+    /**
+     * Computes per-dimension counts for the products matching {@code query}. Each dimension is
+     * counted with every filter applied except its own, so selecting one brand still shows the others.
+     */
+    ProductFacetsDto facets(CatalogQuery query, long[] priceBounds) {
+        lock.readLock().lock();
+        try {
+            BitSet byAvailability = filter(query, Facet.AVAILABILITY);
+            long inStockCount = intersectionCount(byAvailability, inStock);
+
+            return ProductFacetsDto.builder()
+                    .totalItems(filter(query, null).cardinality())
+                    .categories(countValues(filter(query, Facet.CATEGORY), categories))
+                    .brands(countValues(filter(query, Facet.BRAND), brands))
+                    .origins(countValues(filter(query, Facet.ORIGIN), origins))
+                    .availability(Map.of(
+                            "inStock", inStockCount,
+                            "outOfStock", byAvailability.cardinality() - inStockCount))
+                    .priceBuckets(countPriceBuckets(filter(query, Facet.PRICE), priceBounds))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Min, max and an equal-width histogram of price over the products matching every filter but price.
+     * The price column is already sorted, so min and max are its first and last matching slots and
+     * buckets fill in order while walking between them.
+     */
+    PriceStatsDto priceStats(CatalogQuery query, int bucketCount) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = filter(query, Facet.PRICE);
+            SortedColumn column = sortedColumns.get(CatalogSortField.PRICE);
+            int first = 0;
+            while (first < column.size() && !matches.get(column.slotAt(first))) {
+                first++;
+            }
+            if (first == column.size()) {
+                return PriceStatsDto.builder().totalItems(0).buckets(List.of()).build();
+            }
+            int last = column.size() - 1;
+            while (!matches.get(column.slotAt(last))) {
+                last--;
+            }
+
+            long min = prices[column.slotAt(first)];
+            long max = prices[column.slotAt(last)];
+            long width = bucketWidth(min, max, bucketCount);
+            long start = bucketStart(min, width);
+            long[] counts = new long[bucketsSpanned(min, max, width)];
+            long total = 0;
+            int bucket = 0;
+            long upper = start + width;
+            for (int i = first; i <= last; i++) {
+                int slot = column.slotAt(i);
+                if (!matches.get(slot)) {
+                    continue;
+                }
+                while (prices[slot] >= upper) {
+                    bucket++;
+                    upper += width;
+                }
+                counts[bucket]++;
+                total++;
+            }
+
+            List<ProductFacetsDto.PriceBucketDto> buckets = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                buckets.add(ProductFacetsDto.PriceBucketDto.builder()
+                        .min(Vnd.toBigDecimal(start + i * width))
+                        .max(Vnd.toBigDecimal(start + (i + 1) * width))
+                        .count(counts[i])
+                        .build());
+            }
+            return PriceStatsDto.builder()
+                    .totalItems(total)
+                    .min(Vnd.toBigDecimal(min))
+                    .max(Vnd.toBigDecimal(max))
+                    .bucketWidth(Vnd.toBigDecimal(width))
+                    .buckets(buckets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<String> distinctBrands() {
+        return distinctValues(brands);
+    }
+
+    List<String> distinctOrigins() {
+        return distinctValues(origins);
+    }
+
+    private List<String> distinctValues(ValueDictionary dictionary) {
+        lock.readLock().lock();
+        try {
+            List<String> values = new ArrayList<>();
+            dictionary.forEach((value, bitmap) -> {
+                if (!bitmap.isEmpty()) {
+                    values.add(value);
+                }
+            });
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Long> countValues(BitSet matches, ValueDictionary dictionary) {
+        Map<String, Long> counts = new HashMap<>();
+        dictionary.forEach((value, bitmap) -> {
+            long count = intersectionCount(matches, bitmap);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()), Map::putAll);
+    }
+
+    private List<ProductFacetsDto.PriceBucketDto> countPriceBuckets(BitSet matches, long[] bounds) {
+        long[] counts = new long[bounds.length + 1];
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            int position = Arrays.binarySearch(bounds, prices[slot]);
+            counts[position >= 0 ? position + 1 : -(position + 1)]++;
+        }
+
+        List<ProductFacetsDto.PriceBucketDto> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(ProductFacetsDto.PriceBucketDto.builder()
+                    .min(i == 0 ? BigDecimal.ZERO : Vnd.toBigDecimal(bounds[i - 1]))
+                    .max(i == bounds.length ? null : Vnd.toBigDecimal(bounds[i]))
+                    .count(counts[i])
+                    .build());
+        }
+        return buckets;
+    }
+
+    private static long intersectionCount(BitSet left, BitSet right) {
+        BitSet intersection = (BitSet) left.clone();
+        intersection.and(right);
+        return intersection.cardinality();
+    }
+
+    private BitSet filter(CatalogQuery query, Facet skipped) {
+        BitSet matches = (BitSet) live.clone();
+        if (skipped != Facet.CATEGORY) {
+            intersect(matches, categories, query.getCategory());
+        }
+        if (skipped != Facet.BRAND) {
+            intersect(matches, brands, query.getBrand());
+        }
+        if (skipped != Facet.ORIGIN) {
+            intersect(matches, origins, query.getOrigin());
+        }
+        if (skipped != Facet.AVAILABILITY && Boolean.TRUE.equals(query.getInStock())) {
+            matches.and(inStock);
+        }
+        if (query.getSearchScores() != null) {
+            BitSet hits = new BitSet();
+            query.getSearchScores().keySet().forEach(productId -> {
+                Integer slot = slotsById.get(productId);
+                if (slot != null) {
+                    hits.set(slot);
+                }
+            });
+            matches.and(hits);
+        }
+        if (skipped != Facet.PRICE && (query.getMinPrice() != null || query.getMaxPrice() != null)) {
+            long min = query.getMinPrice() == null ? Long.MIN_VALUE : query.getMinPrice();
+            long max = query.getMaxPrice() == null ? Long.MAX_VALUE : query.getMaxPrice();
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (prices[slot] < min || prices[slot] > max) {
+                    matches.clear(slot);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void intersect(BitSet matches, ValueDictionary dictionary, String value) {
+        if (value == null) {
+            return;
+        }
+        BitSet bitmap = dictionary.bitmap(value);
+        if (bitmap == null) {
+            matches.clear();
+        } else {
+            matches.and(bitmap);
+        }
+    }
+
+    private void write(ProductSnapshot product) {
+        Integer existing = slotsById.get(product.id());
+        if (existing != null) {
+            unlink(existing);
+        }
+        int slot = existing != null ? existing : allocateSlot();
+        slotsById.put(product.id(), slot);
+
+        ids[slot] = product.id();
+        prices[slot] = Vnd.toMinorUnits(product.price(), RoundingMode.HALF_UP);
+        stocks[slot] = product.stock() == null ? 0 : product.stock();
+        solds[slot] = product.sold() == null ? 0 : product.sold();
+        ratings[slot] = ratingKey(product.rating());
+        createdAts[slot] = createdAtKey(product.createdAt());
+        categoryCodes[slot] = categories.encode(product.categorySlug());
+        brandCodes[slot] = brands.encode(product.brand());
+        originCodes[slot] = origins.encode(product.origin());
+
+        live.set(slot);
+        inStock.set(slot, stocks[slot] > 0);
+        categories.set(categoryCodes[slot], slot);
+        brands.set(brandCodes[slot], slot);
+        origins.set(originCodes[slot], slot);
+        sortedColumns.values().forEach(column -> column.insert(slot));
+    }
+
+    private void unlink(int slot) {
+        sortedColumns.values().forEach(column -> column.remove(slot));
+        live.clear(slot);
+        inStock.clear(slot);
+        categories.clear(categoryCodes[slot], slot);
+        brands.clear(brandCodes[slot], slot);
+        origins.clear(originCodes[slot], slot);
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (highWaterMark == ids.length) {
+            grow(ids.length * 2);
+        }
+        return highWaterMark++;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        stocks = Arrays.copyOf(stocks, capacity);
+        solds = Arrays.copyOf(solds, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        brandCodes = Arrays.copyOf(brandCodes, capacity);
+        originCodes = Arrays.copyOf(originCodes, capacity);
+    }
+
+    /**
+     * Smallest 1/2/5 x 10^n width whose buckets, aligned to multiples of the width, cover {@code min..max}
+     * in at most {@code bucketCount} buckets. Aligning the first bucket below {@code min} can push the range
+     * into one more bucket than {@code (max - min + 1) / width}, so each candidate is checked from its start.
+     */
+    static long bucketWidth(long min, long max, int bucketCount) {
+        long raw = Math.max(1, (max - min + bucketCount) / bucketCount);
+        for (long magnitude = 1; ; magnitude *= 10) {
+            for (long step : new long[]{1, 2, 5}) {
+                long width = step * magnitude;
+                if (width >= raw && bucketsSpanned(min, max, width) <= bucketCount) {
+                    return width;
+                }
+            }
+        }
+    }
+
+    static long bucketStart(long min, long width) {
+        return Math.floorDiv(min, width) * width;
+    }
+
+    static int bucketsSpanned(long min, long max, long width) {
+        return (int) ((max - bucketStart(min, width)) / width) + 1;
+    }
+
+    static long ratingKey(Double rating) {
+        return rating == null ? 0 : Math.round(rating * 100);
+    }
+
+    static long createdAtKey(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MIN_VALUE : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
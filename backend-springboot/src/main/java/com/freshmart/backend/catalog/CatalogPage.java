@@ -0,0 +1,10 @@
+package com.freshmart.backend.catalog;
+
+import java.util.List;
+
+/**
+ * Ids of one result page, in display order, plus the number of matching products
+ * and whether another page follows.
+ */
+public record CatalogPage(List<Long> productIds, long totalElements, boolean hasNext) {
+}
@@ -0,0 +1,24 @@
+package com.freshmart.backend.catalog;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class CatalogQuery {
+    private final String category;
+    private final String brand;
+    private final String origin;
+    private final Long minPrice;
+    private final Long maxPrice;
+    private final Boolean inStock;
+    private final Map<Long, Double> searchScores;
+    private final CatalogSortField sortField;
+    private final boolean descending;
+    private final Long afterKey;
+    private final Long afterId;
+    private final int page;
+    private final int size;
+}
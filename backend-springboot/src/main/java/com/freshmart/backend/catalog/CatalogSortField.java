@@ -0,0 +1,32 @@
+package com.freshmart.backend.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Sort keys the in-memory catalog keeps a pre-sorted permutation for, plus search relevance.
+ * Any other {@code sortBy} value falls back to the database query.
+ */
+public enum CatalogSortField {
+    SOLD("sold"),
+    PRICE("price"),
+    RATING("rating"),
+    CREATED_AT("createdAt"),
+    RELEVANCE("relevance");
+
+    private final String property;
+
+    CatalogSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static CatalogSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equalsIgnoreCase(property))
+                .findFirst()
+                .orElse(null);
+    }
+}
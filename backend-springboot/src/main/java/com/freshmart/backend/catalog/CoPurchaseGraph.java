@@ -0,0 +1,260 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.event.OrderChangedEvent;
+import com.freshmart.backend.model.Order.OrderStatus;
+import com.freshmart.backend.repository.OrderRepository;
+import com.freshmart.backend.repository.OrderRepository.OrderLine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * "Frequently bought together" from order history. Mining streams (order, product) lines grouped by
+ * order and counts, per product, the orders containing it and the orders containing it together with
+ * each other product. Each product keeps its top neighbours ranked by lift
+ * ({@code P(a and b) / (P(a) * P(b))}), then confidence ({@code P(b | a)}).
+ * Placed and cancelled orders adjust the counts and re-rank the products in them; a periodic re-mine
+ * refreshes every ranking as overall popularity drifts.
+ * <p>
+ * Order ids come from pooled blocks and are not allocated in commit order, so a mine cannot tell new
+ * orders by id. Every event arriving during a mine is buffered instead; before installing, the mine
+ * looks up in its own read snapshot which of those orders it counted, and replays each order's events
+ * only where they change that.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoPurchaseGraph {
+
+    private static final Comparator<Neighbour> RANKING = Comparator.comparingDouble(Neighbour::lift).reversed()
+            .thenComparing(Comparator.comparingDouble(Neighbour::confidence).reversed())
+            .thenComparingLong(Neighbour::productId);
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.related.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.related.neighbours:10}")
+    private int neighbours;
+
+    @Value("${catalog.related.min-support:2}")
+    private int minSupport;
+
+    @Value("${catalog.related.max-basket-size:50}")
+    private int maxBasketSize;
+
+    private final Map<Long, List<Neighbour>> related = new ConcurrentHashMap<>();
+    private Counts counts;
+    /** Events received while a re-mine reads the orders; replayed onto its result. */
+    private List<OrderChangedEvent> pendingDuringMine;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            mine();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${catalog.related.remine-interval-ms:21600000}",
+            fixedDelayString = "${catalog.related.remine-interval-ms:21600000}"
+    )
+    public void scheduledMine() {
+        if (enabled && ready) {
+            mine();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingDuringMine != null) {
+            pendingDuringMine.add(event);
+            return;
+        }
+        if (counts != null) {
+            apply(counts, event);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Neighbours of {@code productId}, strongest first. */
+    public List<Neighbour> neighbours(Long productId, int limit) {
+        List<Neighbour> list = related.getOrDefault(productId, List.of());
+        return list.size() <= limit ? list : list.subList(0, limit);
+    }
+
+    void mine() {
+        synchronized (this) {
+            pendingDuringMine = new ArrayList<>();
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            // One transaction, so the lookup in install() sees the same snapshot as the stream
+            Counts mined = transactionTemplate.execute(status -> {
+                Counts result;
+                try (Stream<OrderLine> lines = orderRepository.streamOrderLines(OrderStatus.CANCELLED)) {
+                    result = count(lines.iterator());
+                }
+                install(result);
+                return result;
+            });
+            log.info("Mined co-purchases from {} orders in {} ms", mined.orders, System.currentTimeMillis() - started);
+        } finally {
+            synchronized (this) {
+                pendingDuringMine = null;
+            }
+        }
+    }
+
+    private synchronized void install(Counts mined) {
+        List<OrderChangedEvent> pending = pendingDuringMine;
+        pendingDuringMine = null;
+        Set<Long> counted = pending.isEmpty() ? new HashSet<>() : new HashSet<>(orderRepository.findIdsByIdInAndStatusNot(
+                pending.stream().map(OrderChangedEvent::orderId).collect(Collectors.toSet()), OrderStatus.CANCELLED
+        ));
+        counts = mined;
+        rankAll(mined);
+        for (OrderChangedEvent event : pending) {
+            // A placement the mine already counted, or a cancellation of an order it did not count, is a no-op
+            boolean placed = event.type() == OrderChangedEvent.Type.PLACED;
+            if (placed ? counted.add(event.orderId()) : counted.remove(event.orderId())) {
+                apply(mined, event);
+            }
+        }
+        ready = true;
+    }
+
+    private Counts count(Iterator<OrderLine> lines) {
+        Counts result = new Counts();
+        long[] basket = new long[maxBasketSize];
+        int size = 0;
+        long currentOrder = Long.MIN_VALUE;
+        while (lines.hasNext()) {
+            OrderLine line = lines.next();
+            long orderId = line.getOrderId();
+            if (orderId != currentOrder) {
+                result.add(basket, size, 1);
+                currentOrder = orderId;
+                size = 0;
+            }
+            if (size < basket.length) {
+                basket[size++] = line.getProductId();
+            }
+        }
+        result.add(basket, size, 1);
+        return result;
+    }
+
+    private void apply(Counts target, OrderChangedEvent event) {
+        long[] basket = event.productIds().stream()
+                .limit(maxBasketSize)
+                .mapToLong(Long::longValue)
+                .toArray();
+        target.add(basket, basket.length, event.type() == OrderChangedEvent.Type.PLACED ? 1 : -1);
+        for (long productId : basket) {
+            rank(target, productId);
+        }
+    }
+
+    private void rankAll(Counts source) {
+        related.keySet().removeIf(productId -> !source.pairs.containsKey(productId));
+        source.pairs.keySet().forEach(productId -> rank(source, productId));
+    }
+
+    private void rank(Counts source, long productId) {
+        LongIntHashMap together = source.pairs.get(productId);
+        int ordersWithProduct = source.itemOrders.get(productId);
+        if (together == null || ordersWithProduct == 0) {
+            related.remove(productId);
+            return;
+        }
+        List<Neighbour> candidates = new ArrayList<>();
+        together.forEach((otherId, count) -> {
+            int ordersWithOther = source.itemOrders.get(otherId);
+            if (count >= minSupport && ordersWithOther > 0) {
+                double confidence = (double) count / ordersWithProduct;
+                double lift = confidence * source.orders / ordersWithOther;
+                candidates.add(new Neighbour(otherId, count, confidence, lift));
+            }
+        });
+        if (candidates.isEmpty()) {
+            related.remove(productId);
+            return;
+        }
+        candidates.sort(RANKING);
+        related.put(productId, List.copyOf(candidates.subList(0, Math.min(neighbours, candidates.size()))));
+    }
+
+    public record Neighbour(long productId, int together, double confidence, double lift) {
+    }
+
+    private static final class Counts {
+        private final LongIntHashMap itemOrders = new LongIntHashMap(1024);
+        private final Map<Long, LongIntHashMap> pairs = new HashMap<>();
+        private long orders;
+
+        /** Counts one order ({@code sign} 1) or takes it back ({@code sign} -1); duplicates in the basket count once. */
+        void add(long[] basket, int size, int sign) {
+            if (size == 0) {
+                return;
+            }
+            long[] distinct = Arrays.stream(basket, 0, size).distinct().toArray();
+            if (sign < 0 && orders == 0) {
+                return;
+            }
+            orders += sign;
+            for (long productId : distinct) {
+                if (sign > 0 || itemOrders.get(productId) > 0) {
+                    itemOrders.add(productId, sign);
+                }
+            }
+            for (int i = 0; i < distinct.length; i++) {
+                for (int j = i + 1; j < distinct.length; j++) {
+                    addPair(distinct[i], distinct[j], sign);
+                    addPair(distinct[j], distinct[i], sign);
+                }
+            }
+        }
+
+        private void addPair(long from, long to, int sign) {
+            if (sign < 0 && (!pairs.containsKey(from) || pairs.get(from).get(to) == 0)) {
+                // The order was never counted (placed while a re-mine was reading older orders)
+                return;
+            }
+            LongIntHashMap together = pairs.computeIfAbsent(from, key -> new LongIntHashMap());
+            together.add(to, sign);
+            if (together.size() == 0) {
+                pairs.remove(from);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.dto.ProductCardDto;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.ProductRepository.FlashSaleWindow;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs flash-sale windows off a delay queue: a sale appears in the listing at its start instant and is
+ * switched off in the database at its end instant. The listing itself is an immutable list rebuilt on one
+ * worker thread after every transition or write to a scheduled product, and swapped in with a single write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlashSaleScheduler {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final long UNSCHEDULED_VERSION_MILLIS = 60_000;
+    private static final Comparator<ProductCardDto> BY_SOLD = Comparator
+            .<ProductCardDto>comparingInt(card -> card.getSold() == null ? 0 : card.getSold())
+            .reversed()
+            .thenComparing(ProductCardDto::getId);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+    private final DelayQueue<Transition> transitions = new DelayQueue<>();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    @Value("${catalog.flash-sale.scheduler.enabled:true}")
+    private boolean enabled;
+
+    private volatile List<ProductCardDto> snapshot = List.of();
+    private volatile long snapshotVersion;
+    private volatile boolean ready;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (FlashSaleWindow row : productRepository.findFlashSaleWindows()) {
+            schedule(row.getId(), Window.of(row.getFlashSaleStart(), row.getFlashSaleEnd()));
+        }
+        worker = new Thread(this::run, "flash-sale-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+        requestRefresh();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ProductSnapshot product = event.snapshot();
+        Window window = event.type() == ProductChangedEvent.Type.DELETED || !Boolean.TRUE.equals(product.isFlashSale())
+                ? null
+                : Window.of(product.flashSaleStart(), product.flashSaleEnd());
+        Window previous = schedule(event.productId(), window);
+        if (previous != null || window != null) {
+            requestRefresh();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Products whose sale window contains the last transition, best sellers first. */
+    public List<ProductCardDto> snapshot() {
+        return snapshot;
+    }
+
+    public long snapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * Changes whenever the listing may have changed: on every rebuild once ready, every minute before that
+     * (the listing is then queried directly, and sales also start and end with time).
+     */
+    public String listingVersion() {
+        return ready ? "f" + snapshotVersion : "m" + System.currentTimeMillis() / UNSCHEDULED_VERSION_MILLIS;
+    }
+
+    private Window schedule(Long productId, Window window) {
+        if (window == null) {
+            return windows.remove(productId);
+        }
+        Window previous = windows.put(productId, window);
+        if (!window.equals(previous)) {
+            if (window.start() != null && window.start().isAfter(LocalDateTime.now())) {
+                transitions.add(Transition.at(productId, Transition.Kind.START, window.start()));
+            }
+            transitions.add(Transition.at(productId, Transition.Kind.END, window.end()));
+        }
+        return previous;
+    }
+
+    private void requestRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            transitions.add(Transition.at(null, Transition.Kind.REFRESH, LocalDateTime.now()));
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Transition transition;
+            try {
+                transition = transitions.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                if (transition.kind() == Transition.Kind.REFRESH) {
+                    refreshQueued.set(false);
+                } else if (transition.kind() == Transition.Kind.END) {
+                    expire(transition);
+                }
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Flash sale transition {} failed, retrying in {}", transition, RETRY_DELAY, e);
+                transitions.add(transition.retryAt(LocalDateTime.now().plus(RETRY_DELAY)));
+            }
+        }
+    }
+
+    private void expire(Transition transition) {
+        Window window = windows.get(transition.productId());
+        if (window == null || !window.end().equals(transition.at())) {
+            // The window was moved or removed after this transition was queued
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> productRepository.findById(transition.productId())
+                .filter(product -> Boolean.TRUE.equals(product.getIsFlashSale()))
+                .filter(product -> product.getFlashSaleEnd() != null
+                        && !product.getFlashSaleEnd().isAfter(LocalDateTime.now()))
+                .ifPresent(product -> {
+                    ProductSnapshot previous = ProductSnapshot.of(product);
+                    product.setIsFlashSale(false);
+                    product.setFlashSaleDiscount(null);
+                    productRepository.save(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(product, previous));
+                }));
+        windows.remove(transition.productId(), window);
+    }
+
+    private void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> activeIds = windows.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(now))
+                .map(Map.Entry::getKey)
+                .toList();
+        snapshot = activeIds.isEmpty() ? List.of() : productRepository.findCardsByIdIn(activeIds).stream()
+                .sorted(BY_SOLD)
+                .toList();
+        snapshotVersion++;
+        ready = true;
+    }
+
+    /** A sale without an end is never listed, matching the original flash-sale query. */
+    private record Window(LocalDateTime start, LocalDateTime end) {
+
+        static Window of(LocalDateTime start, LocalDateTime end) {
+            return end == null ? null : new Window(start, end);
+        }
+
+        boolean contains(LocalDateTime instant) {
+            return (start == null || !start.isAfter(instant)) && end.isAfter(instant);
+        }
+    }
+
+    /** {@code at} is the window instant the transition belongs to, {@code fireAt} when it runs (later on retry). */
+    private record Transition(Long productId, Kind kind, LocalDateTime at, LocalDateTime fireAt) implements Delayed {
+
+        enum Kind {
+            START, END, REFRESH
+        }
+
+        static Transition at(Long productId, Kind kind, LocalDateTime at) {
+            return new Transition(productId, kind, at, at);
+        }
+
+        Transition retryAt(LocalDateTime retry) {
+            return new Transition(productId, kind, at, retry);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), fireAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return fireAt.compareTo(((Transition) other).fireAt);
+        }
+    }
+}
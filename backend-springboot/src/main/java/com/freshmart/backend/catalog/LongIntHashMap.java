@@ -0,0 +1,125 @@
+package com.freshmart.backend.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long to int counter map with linear probing. Stores keys and values in two
+ * primitive arrays, so a co-occurrence count costs about 12 bytes instead of two boxed objects
+ * and a map node. Entries whose count drops to zero are removed.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap() {
+        this(8);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int get(long key) {
+        int index = indexOf(key);
+        return keys[index] == EMPTY ? 0 : values[index];
+    }
+
+    /** Adds {@code delta} to the count of {@code key} and returns the new count. */
+    int add(long key, int delta) {
+        int index = indexOf(key);
+        if (keys[index] == EMPTY) {
+            if (delta == 0) {
+                return 0;
+            }
+            keys[index] = key;
+            values[index] = delta;
+            if (++size * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            return delta;
+        }
+        int value = values[index] + delta;
+        if (value == 0) {
+            delete(index);
+        } else {
+            values[index] = value;
+        }
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long key, int value);
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /** Backward-shift deletion keeps probe chains intact without tombstones. */
+    private void delete(int index) {
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (index + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = mix(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,98 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.exception.BadRequestException;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.pricing.Vnd;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination token: the sort key and id of the last product on the previous page.
+ * The sort field and direction are embedded so a token cannot be replayed against a different ordering.
+ * A null sort key is kept as null ({@code key == null}) and encoded as an empty field.
+ */
+public record ProductCursor(CatalogSortField sortField, boolean descending, String key, long id) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final String NULL_KEY = "";
+
+    public static ProductCursor after(Product product, CatalogSortField sortField, boolean descending) {
+        Object value = switch (sortField) {
+            case SOLD -> product.getSold();
+            case PRICE -> product.getPrice() == null ? null : product.getPrice().toPlainString();
+            case RATING -> product.getRating();
+            case CREATED_AT -> product.getCreatedAt();
+            case RELEVANCE -> throw new BadRequestException("Cursor pagination is not supported for relevance sort");
+        };
+        return new ProductCursor(sortField, descending, value == null ? null : value.toString(), product.getId());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unknown cursor format");
+            }
+            ProductCursor cursor = new ProductCursor(
+                    CatalogSortField.valueOf(parts[1]),
+                    "desc".equals(parts[2]),
+                    NULL_KEY.equals(parts[3]) ? null : parts[3],
+                    Long.parseLong(parts[4])
+            );
+            cursor.typedKey();
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortField.name(), descending ? "desc" : "asc",
+                key == null ? NULL_KEY : key, String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The key as the entity attribute type, for the database keyset predicate; null for a null key.
+     */
+    public Comparable<?> typedKey() {
+        if (key == null) {
+            return null;
+        }
+        return switch (sortField) {
+            case SOLD -> Integer.valueOf(key);
+            case PRICE -> new BigDecimal(key);
+            case RATING -> Double.valueOf(key);
+            case CREATED_AT -> LocalDateTime.parse(key);
+            case RELEVANCE -> throw new IllegalArgumentException("Relevance has no keyset");
+        };
+    }
+
+    /**
+     * The key as encoded in the {@link CatalogIndex} sorted columns, which store nulls as their defaults.
+     */
+    long indexKey() {
+        if (key == null) {
+            return switch (sortField) {
+                case SOLD, PRICE -> 0;
+                case RATING -> CatalogIndex.ratingKey(null);
+                case CREATED_AT -> CatalogIndex.createdAtKey(null);
+                case RELEVANCE -> throw new IllegalArgumentException("Relevance has no keyset");
+            };
+        }
+        return switch (sortField) {
+            case SOLD -> Long.parseLong(key);
+            case PRICE -> Vnd.toMinorUnits(new BigDecimal(key), RoundingMode.HALF_UP);
+            case RATING -> CatalogIndex.ratingKey(Double.valueOf(key));
+            case CREATED_AT -> CatalogIndex.createdAtKey(LocalDateTime.parse(key));
+            case RELEVANCE -> throw new IllegalArgumentException("Relevance has no keyset");
+        };
+    }
+}
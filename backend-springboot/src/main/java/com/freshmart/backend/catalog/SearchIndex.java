@@ -0,0 +1,163 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.event.ProductSnapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product name, brand, tags and description with BM25 ranking.
+ * Term frequencies are weighted per field so a hit in the name outranks one in the description.
+ * The last query term also matches as a prefix, so a query typed halfway ("fuj", "tá") still finds products.
+ */
+class SearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double BRAND_WEIGHT = 2.0;
+    private static final double TAG_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    void rebuild(Collection<ProductSnapshot> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            products.forEach(this::write);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsert(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            unlink(product.id());
+            write(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            unlink(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every product containing all terms of {@code text}, the last one possibly as a prefix;
+     * products missing a term are absent.
+     */
+    Map<Long, Double> search(String text) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(TextAnalyzer.tokenize(text)));
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || documents.isEmpty()) {
+                return Map.of();
+            }
+            double averageLength = totalLength / documents.size();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                Map<Long, Double> termScores = i < terms.size() - 1
+                        ? score(term, postings.get(term), averageLength)
+                        : prefixScores(term, averageLength);
+                Map<Long, Double> next = new HashMap<>();
+                for (Map.Entry<Long, Double> termScore : termScores.entrySet()) {
+                    Long productId = termScore.getKey();
+                    if (scores == null || scores.containsKey(productId)) {
+                        next.put(productId, (scores == null ? 0 : scores.get(productId)) + termScore.getValue());
+                    }
+                }
+                scores = next;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A product matching several completions of the prefix keeps its best one
+    private Map<Long, Double> prefixScores(String prefix, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).forEach((term, termPostings) ->
+                score(term, termPostings, averageLength).forEach((productId, score) -> scores.merge(productId, score, Math::max)));
+        return scores;
+    }
+
+    private Map<Long, Double> score(String term, Map<Long, Double> termPostings, double averageLength) {
+        if (termPostings == null) {
+            return Map.of();
+        }
+        double idf = Math.log(1 + (documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+        Map<Long, Double> scores = new HashMap<>(termPostings.size());
+        for (Map.Entry<Long, Double> posting : termPostings.entrySet()) {
+            double tf = posting.getValue();
+            double length = documents.get(posting.getKey()).length();
+            scores.put(posting.getKey(), idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength)));
+        }
+        return scores;
+    }
+
+    private void write(ProductSnapshot product) {
+        Map<String, Double> frequencies = new HashMap<>();
+        double length = 0;
+        length += addField(frequencies, product.name(), NAME_WEIGHT);
+        length += addField(frequencies, product.brand(), BRAND_WEIGHT);
+        for (String tag : product.tags()) {
+            length += addField(frequencies, tag, TAG_WEIGHT);
+        }
+        length += addField(frequencies, product.description(), DESCRIPTION_WEIGHT);
+
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(product.id(), frequency));
+        documents.put(product.id(), new Document(frequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    private void unlink(Long productId) {
+        Document document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Double> termPostings = postings.get(term);
+            termPostings.remove(productId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+    }
+
+    private static double addField(Map<String, Double> frequencies, String text, double weight) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Double::sum));
+        return tokens.size() * weight;
+    }
+
+    private record Document(Set<String> terms, double length) {
+    }
+}
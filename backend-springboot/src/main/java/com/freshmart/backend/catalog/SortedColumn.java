@@ -0,0 +1,99 @@
+package com.freshmart.backend.catalog;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Permutation of live slots ordered ascending by (key, product id).
+ * Keys are maintained incrementally: a slot is removed before its key changes and re-inserted after,
+ * so each write costs a binary search plus one array shift instead of a full re-sort.
+ */
+class SortedColumn {
+
+    private final IntToLongFunction keys;
+    private final IntToLongFunction ids;
+    private int[] order = new int[64];
+    private int size;
+
+    SortedColumn(IntToLongFunction keys, IntToLongFunction ids) {
+        this.keys = keys;
+        this.ids = ids;
+    }
+
+    void insert(int slot) {
+        if (size == order.length) {
+            int[] grown = new int[order.length * 2];
+            System.arraycopy(order, 0, grown, 0, size);
+            order = grown;
+        }
+        int position = -(search(slot) + 1);
+        System.arraycopy(order, position, order, position + 1, size - position);
+        order[position] = slot;
+        size++;
+    }
+
+    void remove(int slot) {
+        int position = search(slot);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(order, position + 1, order, position, size - position - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int slotAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * First position whose (key, id) is greater than the given pair, or greater-or-equal when not {@code strict}.
+     */
+    int bound(long key, long id, boolean strict) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int other = order[mid];
+            int cmp = Long.compare(keys.applyAsLong(other), key);
+            if (cmp == 0) {
+                cmp = Long.compare(ids.applyAsLong(other), id);
+            }
+            if (cmp < 0 || (strict && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private int search(int slot) {
+        long key = keys.applyAsLong(slot);
+        long id = ids.applyAsLong(slot);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int other = order[mid];
+            int cmp = Long.compare(keys.applyAsLong(other), key);
+            if (cmp == 0) {
+                cmp = Long.compare(ids.applyAsLong(other), id);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
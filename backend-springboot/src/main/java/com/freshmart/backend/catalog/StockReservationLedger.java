@@ -0,0 +1,308 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.ProductStockRepository;
+import com.freshmart.backend.repository.ProductStockRepository.JournalEntry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory stock reservations for flash sales ({@code inventory.reservation.mode=memory}).
+ * Checkouts take units from per-product counters guarded by striped locks and append the move to
+ * {@code stock_journal} in their own transaction instead of updating the hot {@code products} rows.
+ * A background flush sums the journal per product and applies it in one short transaction, so a burst of
+ * orders on one product costs a single row update per flush.
+ * <p>
+ * The journal is durable with the orders, so nothing is lost on a crash: a counter is (re)loaded as
+ * {@code stock - unflushed journal}, and startup drains whatever is left. In the default
+ * {@code database} mode orders use conditional updates on {@code products} and this class only drains a
+ * journal left behind by an earlier memory-mode run.
+ */
+@Slf4j
+@Component
+public class StockReservationLedger {
+
+    private static final int STRIPES = 64;
+
+    private final ProductStockRepository productStockRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate flushTransaction;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ThreadLocal<Boolean> flushing = ThreadLocal.withInitial(() -> false);
+
+    @Value("${inventory.reservation.mode:database}")
+    private String mode;
+
+    @Value("${inventory.reservation.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    public StockReservationLedger(
+            ProductStockRepository productStockRepository,
+            ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.productStockRepository = productStockRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        // Read committed: locking the journal head must not gap-lock the inserts of concurrent checkouts
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Takes every line or none. Must run inside the order's transaction: the journal rows commit with the
+     * order, and a rollback hands the units back to the counters.
+     *
+     * @return ids that are short of stock or do not exist; empty when the basket was reserved
+     */
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        requireTransaction();
+        Map<Long, Long> taken = new TreeMap<>();
+        List<Long> failed = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            Long generation = take(line.getKey(), line.getValue());
+            if (generation == null) {
+                failed.add(line.getKey());
+            } else {
+                taken.put(line.getKey(), generation);
+            }
+        }
+        if (!failed.isEmpty()) {
+            taken.forEach((productId, generation) -> complete(productId, quantities.get(productId), generation, false));
+            return failed;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                taken.forEach((productId, generation) ->
+                        complete(productId, quantities.get(productId), generation, committed));
+            }
+        });
+        productStockRepository.appendJournal(quantities);
+        return failed;
+    }
+
+    /** Queues units given back; counters reload once the release has committed. */
+    public void release(Map<Long, Integer> quantities) {
+        requireTransaction();
+        Map<Long, Integer> moves = new HashMap<>();
+        quantities.forEach((productId, quantity) -> moves.put(productId, -quantity));
+        productStockRepository.appendJournal(moves);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                quantities.keySet().forEach(StockReservationLedger.this::invalidate);
+            }
+        });
+    }
+
+    /** Any stock write other than our own flush (admin edit, import, database-mode order) invalidates the counter. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (flushing.get()) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            counters.remove(event.productId());
+        } else {
+            invalidate(event.productId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int applied = 0;
+        int drained;
+        do {
+            drained = flushBatch();
+            applied += drained;
+        } while (drained == flushBatchSize);
+        if (applied > 0) {
+            log.info("Applied {} stock journal entries left from a previous run", applied);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.reservation.flush-interval-ms:200}",
+            fixedDelayString = "${inventory.reservation.flush-interval-ms:200}"
+    )
+    public void flush() {
+        if (isEnabled()) {
+            flushBatch();
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        if (isEnabled()) {
+            recover();
+        }
+    }
+
+    /** Applies up to one batch of journal rows; returns how many were applied. */
+    private int flushBatch() {
+        flushing.set(true);
+        try {
+            Integer applied = flushTransaction.execute(status -> {
+                List<JournalEntry> entries = productStockRepository.lockJournal(flushBatchSize);
+                if (entries.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, Integer> totals = new HashMap<>();
+                List<Long> ids = new ArrayList<>(entries.size());
+                for (JournalEntry entry : entries) {
+                    totals.merge(entry.productId(), entry.quantity(), Integer::sum);
+                    ids.add(entry.id());
+                }
+                totals.values().removeIf(total -> total == 0);
+                if (!totals.isEmpty()) {
+                    productStockRepository.applyJournal(totals);
+                    productRepository.findAllById(totals.keySet()).forEach(product -> {
+                        ProductSnapshot snapshot = ProductSnapshot.of(product);
+                        eventPublisher.publishEvent(ProductChangedEvent.updated(snapshot, snapshot));
+                    });
+                }
+                productStockRepository.deleteJournal(ids);
+                return entries.size();
+            });
+            return applied == null ? 0 : applied;
+        } catch (RuntimeException e) {
+            // Rows stay in the journal and are retried on the next run
+            log.warn("Stock journal flush failed", e);
+            return 0;
+        } finally {
+            flushing.remove();
+        }
+    }
+
+    /** Returns the counter generation the units were taken from, or null when they could not be taken. */
+    private Long take(Long productId, int quantity) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Counter counter = counters.get(productId);
+            if (counter == null || counter.stale) {
+                counter = load(productId, counter);
+                if (counter == null) {
+                    return null;
+                }
+            }
+            if (counter.available < quantity) {
+                return null;
+            }
+            counter.available -= quantity;
+            counter.inFlight += quantity;
+            return counter.generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(Long productId, int quantity, long generation, boolean committed) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Counter counter = counters.get(productId);
+            if (counter == null) {
+                return;
+            }
+            counter.inFlight -= quantity;
+            if (!committed) {
+                counter.available += quantity;
+            } else if (counter.generation != generation) {
+                // Reloaded while this order was committing: the load may have counted its journal row too
+                counter.stale = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidate(Long productId) {
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                counter.stale = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called with the stripe held, so no reservation on this product can interleave. The read runs on the
+     * checkout's own connection: a second connection per load could wait out the pool while every other
+     * checkout holds one and waits on this stripe. Its share locks hold back other checkouts' journal
+     * inserts for this product until the loading checkout commits, which only happens on a (re)load.
+     */
+    private Counter load(Long productId, Counter previous) {
+        Long available = productStockRepository.lockAvailable(productId);
+        if (available == null) {
+            counters.remove(productId);
+            return null;
+        }
+        long inFlight = previous == null ? 0 : previous.inFlight;
+        Counter counter = new Counter();
+        counter.available = available - inFlight;
+        counter.inFlight = inFlight;
+        counter.generation = previous == null ? 0 : previous.generation + 1;
+        counters.put(productId, counter);
+        return counter;
+    }
+
+    private ReentrantLock stripe(Long productId) {
+        return stripes[Long.hashCode(productId * 0x9E3779B97F4A7C15L) & (STRIPES - 1)];
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock reservations must run inside a transaction");
+        }
+    }
+
+    /** Mutated only while holding the product's stripe lock. */
+    private static final class Counter {
+        private long available;
+        /** Units taken by orders whose transaction has not finished yet. */
+        private long inFlight;
+        private long generation;
+        private boolean stale;
+    }
+}
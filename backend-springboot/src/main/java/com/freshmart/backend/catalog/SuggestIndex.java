@@ -0,0 +1,274 @@
+package com.freshmart.backend.catalog;
+
+import com.freshmart.backend.event.ProductSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over folded product names, brands and categories for typeahead.
+ * Every word of a name starts a term, so "fuji" finds "Táo Fuji Nhật Bản". Each node caches the
+ * best {@link #LIMIT} entries of its subtree by units sold, so a lookup is a walk down the prefix.
+ * Brand and category entries rank by the summed sales of their products.
+ */
+class SuggestIndex {
+
+    static final int LIMIT = 10;
+
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::sold).reversed()
+            .thenComparing(Suggestion::label)
+            .thenComparing(Suggestion::key);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node();
+    private final Map<String, Suggestion> entries = new HashMap<>();
+    private final Map<String, List<String>> termsByKey = new HashMap<>();
+    private final Map<Long, ProductSnapshot> products = new HashMap<>();
+    private final Map<String, Group> brands = new HashMap<>();
+    private final Map<String, Group> categories = new HashMap<>();
+    private Map<String, String> categoryNames = Map.of();
+
+    void rebuild(Collection<ProductSnapshot> snapshots, Map<String, String> categoryNames) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            entries.clear();
+            termsByKey.clear();
+            products.clear();
+            brands.clear();
+            categories.clear();
+            this.categoryNames = Map.copyOf(categoryNames);
+            snapshots.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsert(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            unlink(product.id());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            unlink(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Re-labels category entries; categories are few, so all of them are re-put. */
+    void renameCategories(Map<String, String> names) {
+        lock.writeLock().lock();
+        try {
+            categoryNames = Map.copyOf(names);
+            categories.forEach((slug, group) -> putGroup(Suggestion.CATEGORY, slug, group));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Suggestion> suggest(String prefix, int limit) {
+        String term = String.join(" ", TextAnalyzer.tokenize(prefix));
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.children.get(term.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return List.copyOf(node.top.subList(0, Math.min(limit, node.top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductSnapshot product) {
+        products.put(product.id(), product);
+        long sold = sold(product);
+        put(new Suggestion(Suggestion.keyOf(Suggestion.PRODUCT, product.id()), Suggestion.PRODUCT, product.name(), product.slug(), sold),
+                terms(product.name()));
+        if (product.brand() != null && !product.brand().isBlank()) {
+            Group group = brands.computeIfAbsent(product.brand(), key -> new Group());
+            group.products++;
+            group.sold += sold;
+            putGroup(Suggestion.BRAND, product.brand(), group);
+        }
+        if (product.categorySlug() != null) {
+            Group group = categories.computeIfAbsent(product.categorySlug(), key -> new Group());
+            group.products++;
+            group.sold += sold;
+            putGroup(Suggestion.CATEGORY, product.categorySlug(), group);
+        }
+    }
+
+    private void unlink(Long productId) {
+        ProductSnapshot product = products.remove(productId);
+        if (product == null) {
+            return;
+        }
+        long sold = sold(product);
+        delete(Suggestion.keyOf(Suggestion.PRODUCT, productId));
+        if (product.brand() != null && !product.brand().isBlank()) {
+            leaveGroup(brands, Suggestion.BRAND, product.brand(), sold);
+        }
+        if (product.categorySlug() != null) {
+            leaveGroup(categories, Suggestion.CATEGORY, product.categorySlug(), sold);
+        }
+    }
+
+    private void leaveGroup(Map<String, Group> groups, String type, String value, long sold) {
+        Group group = groups.get(value);
+        group.products--;
+        group.sold -= sold;
+        if (group.products == 0) {
+            groups.remove(value);
+            delete(Suggestion.keyOf(type, value));
+        } else {
+            putGroup(type, value, group);
+        }
+    }
+
+    private void putGroup(String type, String value, Group group) {
+        List<String> terms;
+        String label;
+        if (Suggestion.CATEGORY.equals(type)) {
+            label = categoryNames.getOrDefault(value, value);
+            Set<String> unique = new LinkedHashSet<>(terms(label));
+            unique.addAll(terms(value));
+            terms = List.copyOf(unique);
+        } else {
+            label = value;
+            terms = terms(value);
+        }
+        put(new Suggestion(Suggestion.keyOf(type, value), type, label, value, group.sold), terms);
+    }
+
+    private void put(Suggestion suggestion, List<String> terms) {
+        Suggestion current = entries.get(suggestion.key());
+        List<String> currentTerms = termsByKey.get(suggestion.key());
+        if (suggestion.equals(current) && terms.equals(currentTerms)) {
+            return;
+        }
+        if (current != null) {
+            currentTerms.forEach(term -> detach(term, suggestion.key()));
+        }
+        entries.put(suggestion.key(), suggestion);
+        termsByKey.put(suggestion.key(), terms);
+        terms.forEach(term -> attach(term, suggestion));
+    }
+
+    private void delete(String key) {
+        if (entries.remove(key) != null) {
+            termsByKey.remove(key).forEach(term -> detach(term, key));
+        }
+    }
+
+    private void attach(String term, Suggestion suggestion) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), key -> new Node());
+            path.add(node);
+        }
+        node.terminals.put(suggestion.key(), suggestion);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).recompute();
+        }
+    }
+
+    private void detach(String term, String key) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.get(term.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+        node.terminals.remove(key);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.children.isEmpty() && current.terminals.isEmpty()) {
+                path.get(i - 1).children.remove(term.charAt(i - 1));
+            } else {
+                current.recompute();
+            }
+        }
+    }
+
+    /** One term per word position: "tao fuji nhat", "fuji nhat", "nhat". */
+    private static List<String> terms(String text) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String term = String.join(" ", tokens.subList(i, tokens.size()));
+            terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+        }
+        return terms;
+    }
+
+    private static long sold(ProductSnapshot product) {
+        return product.sold() == null ? 0 : product.sold();
+    }
+
+    record Suggestion(String key, String type, String label, String value, long sold) {
+        static final String PRODUCT = "product";
+        static final String BRAND = "brand";
+        static final String CATEGORY = "category";
+
+        static String keyOf(String type, Object value) {
+            return type + ":" + value;
+        }
+    }
+
+    private static final class Group {
+        private int products;
+        private long sold;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<String, Suggestion> terminals = new HashMap<>();
+        private List<Suggestion> top = List.of();
+
+        /** Children's lists already hold their subtree's best, so merging them is enough. */
+        void recompute() {
+            Map<String, Suggestion> candidates = new LinkedHashMap<>(terminals);
+            for (Node child : children.values()) {
+                child.top.forEach(suggestion -> candidates.putIfAbsent(suggestion.key(), suggestion));
+            }
+            top = candidates.values().stream()
+                    .sorted(RANKING)
+                    .limit(LIMIT)
+                    .toList();
+        }
+    }
+}
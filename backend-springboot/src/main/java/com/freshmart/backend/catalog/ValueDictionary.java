@@ -0,0 +1,63 @@
+package com.freshmart.backend.catalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Dictionary-encodes a low-cardinality string column and keeps one bitmap of slots per value.
+ */
+class ValueDictionary {
+
+    static final int NO_VALUE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final List<BitSet> bitmaps = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        return codes.computeIfAbsent(value, key -> {
+            values.add(key);
+            bitmaps.add(new BitSet());
+            return values.size() - 1;
+        });
+    }
+
+    void set(int code, int slot) {
+        if (code != NO_VALUE) {
+            bitmaps.get(code).set(slot);
+        }
+    }
+
+    void clear(int code, int slot) {
+        if (code != NO_VALUE) {
+            bitmaps.get(code).clear(slot);
+        }
+    }
+
+    /**
+     * Returns the bitmap for {@code value}, or {@code null} when no product ever had it.
+     */
+    BitSet bitmap(String value) {
+        Integer code = codes.get(value);
+        return code == null ? null : bitmaps.get(code);
+    }
+
+    void forEach(BiConsumer<String, BitSet> action) {
+        for (int code = 0; code < values.size(); code++) {
+            action.accept(values.get(code), bitmaps.get(code));
+        }
+    }
+
+    void reset() {
+        codes.clear();
+        values.clear();
+        bitmaps.clear();
+    }
+}
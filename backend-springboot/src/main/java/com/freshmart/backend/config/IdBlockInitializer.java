@@ -0,0 +1,46 @@
+package com.freshmart.backend.config;
+
+import com.freshmart.backend.model.IdBlocks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each id block segment past the ids already in its table, so switching an entity from
+ * IDENTITY to table allocation never hands out an id that exists. Runs once the schema is up
+ * and before anything can insert.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdBlockInitializer {
+    
+    private static final List<String> SEGMENTS = List.of("orders", "order_items", "supplier_orders", "supplier_order_items");
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void seed() {
+        for (String segment : SEGMENTS) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + segment, Long.class);
+            // Two blocks of headroom keep the first pooled block clear of existing ids
+            long floor = maxId + 2L * IdBlocks.ALLOCATION_SIZE;
+            
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + IdBlocks.TABLE + " SET " + IdBlocks.VALUE_COLUMN + " = GREATEST(" + IdBlocks.VALUE_COLUMN + ", ?) " +
+                            "WHERE " + IdBlocks.SEGMENT_COLUMN + " = ?",
+                    floor, segment
+            );
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO " + IdBlocks.TABLE + " (" + IdBlocks.SEGMENT_COLUMN + ", " + IdBlocks.VALUE_COLUMN + ") VALUES (?, ?)",
+                        segment, floor
+                );
+            }
+        }
+    }
+}
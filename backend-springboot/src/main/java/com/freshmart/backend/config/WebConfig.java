@@ -0,0 +1,27 @@
+package com.freshmart.backend.config;
+
+import com.freshmart.backend.cache.CatalogETagInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final CatalogETagInterceptor catalogETagInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor)
+                .addPathPatterns(
+                        "/api/categories",
+                        "/api/categories/*",
+                        "/api/products/category/*",
+                        "/api/products/flash-sale",
+                        "/api/products/best-selling",
+                        "/api/products/*"
+                );
+    }
+}
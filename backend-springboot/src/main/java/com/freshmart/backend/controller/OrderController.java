@@ -1,7 +1,10 @@
 package com.freshmart.backend.controller;
 
+import com.freshmart.backend.dto.OrderIntakeStatusDto;
 import com.freshmart.backend.model.Order;
 import com.freshmart.backend.model.Order.OrderStatus;
+import com.freshmart.backend.service.IdempotencyService;
+import com.freshmart.backend.service.OrderIntakeService;
 import com.freshmart.backend.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -9,16 +12,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     
+    private static final int MAX_INTAKE_WAIT_SECONDS = 30;
+    
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
     
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllOrders() {
@@ -72,18 +81,62 @@ public class OrderController {
     }
     
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createOrder(
+    public ResponseEntity<?> createOrder(
             @RequestBody Order order,
-            @RequestParam Long userId
+            @RequestParam Long userId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
+        boolean async = orderIntakeService.isEnabled();
+        if (idempotencyKey != null) {
+            IdempotencyService.validateKey(idempotencyKey);
+            return idempotencyService.execute(
+                    userId + ":" + idempotencyKey,
+                    order,
+                    async ? HttpStatus.ACCEPTED : HttpStatus.CREATED,
+                    () -> async ? queueOrder(order, userId, true) : placeOrder(order, userId)
+            ).toResponseEntity();
+        }
+        if (async) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(queueOrder(order, userId, false));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(placeOrder(order, userId));
+    }
+    
+    @GetMapping("/intake/{token}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getOrderIntakeStatus(
+            @PathVariable String token,
+            @RequestParam(defaultValue = "0") int waitSeconds
+    ) {
+        int wait = Math.max(0, Math.min(waitSeconds, MAX_INTAKE_WAIT_SECONDS));
+        CompletableFuture<OrderIntakeStatusDto> status = wait == 0
+                ? CompletableFuture.completedFuture(orderIntakeService.getStatus(token))
+                : orderIntakeService.awaitStatus(token, Duration.ofSeconds(wait));
+        return status.thenApply(intake -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", intake);
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    private Map<String, Object> placeOrder(Order order, Long userId) {
         Order createdOrder = orderService.createOrder(order, userId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "Order created successfully");
-        response.put("data", createdOrder);
+        response.put("data", orderService.toSummary(createdOrder));
+        return response;
+    }
+    
+    private Map<String, Object> queueOrder(Order order, Long userId, boolean replayable) {
+        OrderIntakeStatusDto intake = orderIntakeService.submit(order, userId, replayable);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Order received and queued");
+        response.put("data", intake);
+        return response;
     }
     
     @PatchMapping("/{id}/status")
@@ -1,17 +1,32 @@
 package com.freshmart.backend.controller;
 
+import com.freshmart.backend.cache.CacheStats;
+import com.freshmart.backend.cache.EncodedResponseCache;
+import com.freshmart.backend.dto.PriceStatsDto;
+import com.freshmart.backend.dto.ProductCardDto;
+import com.freshmart.backend.dto.ProductCursorPageDto;
 import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.dto.ProductFacetsDto;
 import com.freshmart.backend.dto.ProductUpdateRequest;
+import com.freshmart.backend.dto.SuggestionDto;
 import com.freshmart.backend.model.Product;
+import com.freshmart.backend.dto.ProductImportStatusDto;
+import com.freshmart.backend.service.ProductExportService;
+import com.freshmart.backend.service.ProductImportService;
 import com.freshmart.backend.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +38,9 @@ import java.util.Map;
 public class ProductController {
     
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final EncodedResponseCache encodedResponseCache;
     
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllProducts(
@@ -36,12 +54,42 @@ public class ProductController {
             @RequestParam(defaultValue = "sold") String sortBy,
             @RequestParam(defaultValue = "desc") String sortOrder,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "detail") String view
     ) {
-        Page<ProductDetailDto> productPage = productService.getProductsWithFilters(
-                category, search, minPrice, maxPrice, origin, brand, inStock,
-                sortBy, sortOrder, page, size
-        );
+        boolean cardView = "card".equalsIgnoreCase(view);
+        
+        if (cursor || after != null) {
+            ProductCursorPageDto<?> cursorPage = cardView
+                    ? productService.getProductCardsAfterCursor(
+                            category, search, minPrice, maxPrice, origin, brand, inStock,
+                            sortBy, sortOrder, after, size, includeTotal)
+                    : productService.getProductsAfterCursor(
+                            category, search, minPrice, maxPrice, origin, brand, inStock,
+                            sortBy, sortOrder, after, size, includeTotal);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", cursorPage.getContent());
+            response.put("nextCursor", cursorPage.getNextCursor());
+            response.put("hasNext", cursorPage.isHasNext());
+            if (cursorPage.getTotalItems() != null) {
+                response.put("totalItems", cursorPage.getTotalItems());
+            }
+            
+            return ResponseEntity.ok(response);
+        }
+        
+        Page<?> productPage = cardView
+                ? productService.getProductCardsWithFilters(
+                        category, search, minPrice, maxPrice, origin, brand, inStock,
+                        sortBy, sortOrder, page, size)
+                : productService.getProductsWithFilters(
+                        category, search, minPrice, maxPrice, origin, brand, inStock,
+                        sortBy, sortOrder, page, size);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -53,17 +101,41 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ProductExportService.Format exportFormat = ProductExportService.Format.from(format);
+        StreamingResponseBody body = out -> productExportService.export(exportFormat, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{slug}")
-    public ResponseEntity<Map<String, Object>> getProductBySlug(@PathVariable String slug) {
-        Product product = productService.getProductBySlug(slug);
+    public ResponseEntity<byte[]> getProductBySlug(
+            @PathVariable String slug,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return encodedResponseCache
+                .get(EncodedResponseCache.productKey(slug), () -> productService.getProductDetailBySlug(slug))
+                .toResponseEntity(acceptEncoding);
+    }
+
+    @GetMapping("/{slug}/related")
+    public ResponseEntity<Map<String, Object>> getRelatedProducts(
+            @PathVariable String slug,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<ProductCardDto> products = productService.getRelatedProducts(slug, limit);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", product);
+        response.put("data", products);
         
         return ResponseEntity.ok(response);
     }
-
+    
     @GetMapping("/manage/{id}")
     public ResponseEntity<Map<String, Object>> getProductDetailForManagement(@PathVariable Long id) {
         ProductDetailDto detail = productService.getProductDetail(id);
@@ -76,34 +148,91 @@ public class ProductController {
     }
     
     @GetMapping("/category/{categorySlug}")
-    public ResponseEntity<Map<String, Object>> getProductsByCategory(@PathVariable String categorySlug) {
-        List<Product> products = productService.getProductsByCategory(categorySlug);
+    public ResponseEntity<Map<String, Object>> getProductsByCategory(
+            @PathVariable String categorySlug,
+            @RequestParam(defaultValue = "sold") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortOrder,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Page<ProductCardDto> productPage = productService.getProductsByCategory(categorySlug, sortBy, sortOrder, page, size);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", products);
+        response.put("data", productPage.getContent());
+        response.put("currentPage", productPage.getNumber());
+        response.put("totalPages", productPage.getTotalPages());
+        response.put("totalItems", productPage.getTotalElements());
         
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/flash-sale")
-    public ResponseEntity<Map<String, Object>> getFlashSaleProducts() {
-        List<Product> products = productService.getFlashSaleProducts();
+    public ResponseEntity<byte[]> getFlashSaleProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return encodedResponseCache
+                .get(EncodedResponseCache.flashSaleKey(productService.getFlashSaleListingVersion()),
+                        productService::getFlashSaleProducts)
+                .toResponseEntity(acceptEncoding);
+    }
+    
+    @GetMapping("/best-selling")
+    public ResponseEntity<byte[]> getBestSellingProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return encodedResponseCache
+                .get(EncodedResponseCache.BEST_SELLING, productService::getBestSellingProducts)
+                .toResponseEntity(acceptEncoding);
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getProductFacets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Boolean inStock
+    ) {
+        ProductFacetsDto facets = productService.getProductFacets(
+                category, search, minPrice, maxPrice, origin, brand, inStock
+        );
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", products);
+        response.put("data", facets);
         
         return ResponseEntity.ok(response);
     }
     
-    @GetMapping("/best-selling")
-    public ResponseEntity<Map<String, Object>> getBestSellingProducts() {
-        List<Product> products = productService.getBestSellingProducts();
+    @GetMapping("/price-stats")
+    public ResponseEntity<Map<String, Object>> getPriceStats(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "20") int buckets
+    ) {
+        PriceStatsDto stats = productService.getPriceStats(category, search, origin, brand, inStock, buckets);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", products);
+        response.put("data", stats);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getDetailCacheStats() {
+        Map<String, CacheStats> stats = new HashMap<>(productService.getDetailCacheStats());
+        stats.put("encoded", encodedResponseCache.stats());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", stats);
         
         return ResponseEntity.ok(response);
     }
@@ -130,9 +259,23 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<SuggestionDto> suggestions = productService.suggest(query, limit);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", suggestions);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping
     public ResponseEntity<Map<String, Object>> createProduct(@RequestBody Product product) {
-        Product createdProduct = productService.createProduct(product);
+        ProductDetailDto createdProduct = productService.createProduct(product);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -142,6 +285,37 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<Map<String, Object>> importProducts(
+            HttpServletRequest request,
+            Authentication authentication
+    ) throws IOException {
+        String updatedBy = authentication != null ? authentication.getName() : "staff-demo";
+        ProductImportStatusDto job = productImportService.submit(
+                ProductImportService.Format.fromContentType(request.getContentType()),
+                request.getInputStream(),
+                updatedBy
+        );
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Product import started");
+        response.put("data", job);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportStatus(@PathVariable String jobId) {
+        ProductImportStatusDto job = productImportService.getStatus(jobId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", job);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updateProduct(
             @PathVariable Long id,
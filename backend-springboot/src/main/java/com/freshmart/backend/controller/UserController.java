@@ -1,6 +1,8 @@
 package com.freshmart.backend.controller;
 
+import com.freshmart.backend.dto.ProductCardDto;
 import com.freshmart.backend.model.User;
+import com.freshmart.backend.service.PersonalizedFeedService;
 import com.freshmart.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,6 +19,7 @@ import java.util.Map;
 public class UserController {
     
     private final UserService userService;
+    private final PersonalizedFeedService personalizedFeedService;
     
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllUsers() {
@@ -78,6 +81,17 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/{userId}/for-you")
+    public ResponseEntity<Map<String, Object>> getForYouFeed(@PathVariable Long userId) {
+        List<ProductCardDto> products = personalizedFeedService.getFeed(userId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", products);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/{userId}/wishlist/{productId}")
     public ResponseEntity<Map<String, Object>> addToWishlist(
             @PathVariable Long userId,
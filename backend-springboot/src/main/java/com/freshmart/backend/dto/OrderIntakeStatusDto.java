@@ -0,0 +1,23 @@
+package com.freshmart.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatusDto {
+    private String token;
+    private String state;
+    private OrderSummaryDto order;
+    private String message;
+    private List<Long> productIds;
+    private LocalDateTime queuedAt;
+    private LocalDateTime finishedAt;
+}
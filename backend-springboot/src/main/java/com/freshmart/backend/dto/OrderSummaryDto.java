@@ -0,0 +1,41 @@
+package com.freshmart.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    private Long id;
+    private Long userId;
+    private String status;
+    private String paymentMethod;
+    private String deliveryOption;
+    private BigDecimal total;
+    private BigDecimal shippingFee;
+    private BigDecimal discount;
+    private BigDecimal finalTotal;
+    private List<Item> items;
+    private LocalDateTime estimatedDelivery;
+    private LocalDateTime createdAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private String selectedWeight;
+        private BigDecimal price;
+    }
+}
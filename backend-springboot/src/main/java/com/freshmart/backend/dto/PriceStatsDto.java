@@ -0,0 +1,25 @@
+package com.freshmart.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Price range and equal-width histogram for the products matching the current filters.
+ * Bucket bounds are [min, max); {@code min}/{@code max} are null when nothing matches.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceStatsDto {
+    private long totalItems;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal bucketWidth;
+    private List<ProductFacetsDto.PriceBucketDto> buckets;
+}
@@ -0,0 +1,39 @@
+package com.freshmart.backend.dto;
+
+import com.freshmart.backend.model.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Scalar-only product view for grid listings. Populated by a constructor projection,
+ * so it never touches the product's element collections or category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCardDto {
+    private Long id;
+    private String name;
+    private String slug;
+    private BigDecimal price;
+    private BigDecimal originalPrice;
+    private String image;
+    private String categorySlug;
+    private String brand;
+    private String origin;
+    private Integer stock;
+    private Integer sold;
+    private Double rating;
+    private Integer reviewCount;
+    private ProductStatus status;
+    private Boolean isFlashSale;
+    private Integer flashSaleDiscount;
+    private LocalDateTime flashSaleEnd;
+    private LocalDateTime createdAt;
+}
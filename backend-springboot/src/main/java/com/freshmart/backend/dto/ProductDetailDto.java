@@ -34,6 +34,9 @@ public class ProductDetailDto {
     private ProductStatus status;
     private Boolean isFlashSale;
     private Integer flashSaleDiscount;
+    private LocalDateTime flashSaleStart;
+    private LocalDateTime flashSaleEnd;
+    private List<WeightDto> weights;
     private List<String> tags;
     private List<String> promotions;
     private String ingredients;
@@ -54,4 +57,13 @@ public class ProductDetailDto {
         private String image;
         private Integer productCount;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WeightDto {
+        private String value;
+        private BigDecimal price;
+    }
 }
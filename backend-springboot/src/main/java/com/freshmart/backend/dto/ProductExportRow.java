@@ -0,0 +1,36 @@
+package com.freshmart.backend.dto;
+
+import com.freshmart.backend.model.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One product line of the catalog export (POS terminals, partner feeds).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductExportRow {
+    private Long id;
+    private String slug;
+    private String name;
+    private String categorySlug;
+    private String brand;
+    private String origin;
+    private BigDecimal price;
+    private BigDecimal originalPrice;
+    private Integer stock;
+    private ProductStatus status;
+    private Boolean isFlashSale;
+    private Integer flashSaleDiscount;
+    private String image;
+    private List<String> tags;
+    private LocalDateTime updatedAt;
+}
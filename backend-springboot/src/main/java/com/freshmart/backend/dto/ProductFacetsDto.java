@@ -0,0 +1,33 @@
+package com.freshmart.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private long totalItems;
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    private Map<String, Long> origins;
+    private Map<String, Long> availability;
+    private List<PriceBucketDto> priceBuckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucketDto {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.freshmart.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportStatusDto {
+    private String jobId;
+    private String state;
+    private int processedRows;
+    private int importedRows;
+    private int failedRows;
+    private List<RowErrorDto> errors;
+    private boolean errorsTruncated;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDto {
+        private int row;
+        private String slug;
+        private String message;
+    }
+}
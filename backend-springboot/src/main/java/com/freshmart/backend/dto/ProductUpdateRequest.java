@@ -1,10 +1,12 @@
 package com.freshmart.backend.dto;
 
 import com.freshmart.backend.model.ProductStatus;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -62,6 +64,12 @@ public class ProductUpdateRequest {
     @Max(value = 100, message = "Flash sale discount cannot exceed 100")
     private Integer flashSaleDiscount;
 
+    private LocalDateTime flashSaleStart;
+
+    private LocalDateTime flashSaleEnd;
+
+    private List<@Valid WeightRequest> weights;
+
     private List<String> tags;
 
     private List<String> promotions;
@@ -76,4 +84,14 @@ public class ProductUpdateRequest {
 
     @Min(value = 0, message = "Review count cannot be negative")
     private Integer reviewCount;
+
+    @Data
+    public static class WeightRequest {
+        @NotBlank(message = "Weight value is required")
+        private String value;
+
+        @NotNull(message = "Weight price is required")
+        @DecimalMin(value = "0.0", inclusive = false, message = "Weight price must be greater than 0")
+        private BigDecimal price;
+    }
 }
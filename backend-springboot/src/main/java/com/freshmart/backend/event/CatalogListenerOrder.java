@@ -0,0 +1,17 @@
+package com.freshmart.backend.event;
+
+/**
+ * {@code @Order} values for listeners of catalog write events. After a commit the in-memory indexes are
+ * updated first, then the caches built on them are dropped, and the ETag version is bumped last, so a
+ * request that already sees the new tag can only be served data at least as new.
+ */
+public final class CatalogListenerOrder {
+
+    public static final int INDEX = 100;
+    public static final int CACHE = 200;
+    public static final int ENCODED_CACHE = 300;
+    public static final int VERSION = 400;
+
+    private CatalogListenerOrder() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.freshmart.backend.event;
+
+/**
+ * Published after a category or its product count changes. {@code categoryId} is null when
+ * several categories changed at once (count reconciliation). {@code countOnly} events leave names,
+ * slugs and images untouched, so listeners that only use those can skip them.
+ */
+public record CategoryChangedEvent(Long categoryId, boolean countOnly) {
+
+    public CategoryChangedEvent(Long categoryId) {
+        this(categoryId, false);
+    }
+
+    public static CategoryChangedEvent countChanged(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, true);
+    }
+}
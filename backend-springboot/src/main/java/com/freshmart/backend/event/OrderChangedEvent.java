@@ -0,0 +1,32 @@
+package com.freshmart.backend.event;
+
+import com.freshmart.backend.model.Order;
+
+import java.util.List;
+
+/**
+ * Published by {@link com.freshmart.backend.service.OrderService} when an order is placed or cancelled.
+ * {@code productIds} are the distinct products in the order.
+ */
+public record OrderChangedEvent(Type type, Long orderId, Long userId, List<Long> productIds) {
+
+    public enum Type {
+        PLACED, CANCELLED
+    }
+
+    public static OrderChangedEvent placed(Order order) {
+        return of(Type.PLACED, order);
+    }
+
+    public static OrderChangedEvent cancelled(Order order) {
+        return of(Type.CANCELLED, order);
+    }
+
+    private static OrderChangedEvent of(Type type, Order order) {
+        List<Long> productIds = order.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .distinct()
+                .toList();
+        return new OrderChangedEvent(type, order.getId(), order.getUser().getId(), productIds);
+    }
+}
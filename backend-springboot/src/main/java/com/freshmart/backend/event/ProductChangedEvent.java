@@ -0,0 +1,32 @@
+package com.freshmart.backend.event;
+
+import com.freshmart.backend.model.Product;
+
+/**
+ * Published by {@link com.freshmart.backend.service.ProductService} whenever a product row changes.
+ * {@code previous} holds the state before the write (null for inserts), {@code snapshot} the state after it.
+ * Listeners should use {@code @TransactionalEventListener} so they only see committed state.
+ */
+public record ProductChangedEvent(Type type, Long productId, ProductSnapshot snapshot, ProductSnapshot previous) {
+
+    public enum Type {
+        UPSERTED, DELETED
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.UPSERTED, product.getId(), ProductSnapshot.of(product), null);
+    }
+
+    public static ProductChangedEvent updated(Product product, ProductSnapshot previous) {
+        return new ProductChangedEvent(Type.UPSERTED, product.getId(), ProductSnapshot.of(product), previous);
+    }
+
+    public static ProductChangedEvent updated(ProductSnapshot snapshot, ProductSnapshot previous) {
+        return new ProductChangedEvent(Type.UPSERTED, snapshot.id(), snapshot, previous);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        ProductSnapshot snapshot = ProductSnapshot.of(product);
+        return new ProductChangedEvent(Type.DELETED, product.getId(), snapshot, snapshot);
+    }
+}
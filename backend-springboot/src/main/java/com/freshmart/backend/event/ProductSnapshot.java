@@ -0,0 +1,58 @@
+package com.freshmart.backend.event;
+
+import com.freshmart.backend.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable copy of the product fields the in-memory catalog structures need.
+ * Taken inside the writing transaction so listeners never touch a detached entity.
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String slug,
+        String description,
+        String categorySlug,
+        String brand,
+        String origin,
+        BigDecimal price,
+        Integer stock,
+        Integer sold,
+        Double rating,
+        LocalDateTime createdAt,
+        List<String> tags,
+        Boolean isFlashSale,
+        LocalDateTime flashSaleStart,
+        LocalDateTime flashSaleEnd
+) {
+
+    /** Same product after a stock-only write that bypassed the entity. */
+    public ProductSnapshot withStock(Integer stock, Integer sold) {
+        return new ProductSnapshot(id, name, slug, description, categorySlug, brand, origin, price, stock, sold,
+                rating, createdAt, tags, isFlashSale, flashSaleStart, flashSaleEnd);
+    }
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getSlug(),
+                product.getDescription(),
+                product.getCategorySlug(),
+                product.getBrand(),
+                product.getOrigin(),
+                product.getPrice(),
+                product.getStock(),
+                product.getSold(),
+                product.getRating(),
+                product.getCreatedAt(),
+                product.getTags() == null ? List.of() : List.copyOf(product.getTags()),
+                product.getIsFlashSale(),
+                product.getFlashSaleStart(),
+                product.getFlashSaleEnd()
+        );
+    }
+}
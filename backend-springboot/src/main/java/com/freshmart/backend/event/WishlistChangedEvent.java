@@ -0,0 +1,8 @@
+package com.freshmart.backend.event;
+
+/**
+ * Published by {@link com.freshmart.backend.service.UserService} after a product is added to or removed
+ * from a user's wishlist.
+ */
+public record WishlistChangedEvent(Long userId) {
+}
@@ -0,0 +1,16 @@
+package com.freshmart.backend.exception;
+
+import java.util.List;
+
+public class OutOfStockException extends RuntimeException {
+    private final List<Long> productIds;
+
+    public OutOfStockException(String message, List<Long> productIds) {
+        super(message);
+        this.productIds = productIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
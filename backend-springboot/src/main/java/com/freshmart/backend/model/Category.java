@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@BatchSize(size = 50)
 public class Category {
     
     @Id
@@ -33,7 +35,8 @@ public class Category {
     
     private String image;
     
-    @Column(name = "product_count")
+    // Maintained by counter updates in ProductService and the reconciler in CategoryService, never by entity saves
+    @Column(name = "product_count", updatable = false)
     private Integer productCount = 0;
     
     @CreatedDate
@@ -0,0 +1,17 @@
+package com.freshmart.backend.model;
+
+/**
+ * Shared table-based id allocation for high-volume aggregates. Each entity takes ids from its own row of
+ * {@value #TABLE} in blocks of {@value #ALLOCATION_SIZE}, so inserts need no generated-key round trip and
+ * Hibernate can batch them. Rows are seeded above the existing ids by {@code IdBlockInitializer}.
+ */
+public final class IdBlocks {
+
+    public static final String TABLE = "id_blocks";
+    public static final String SEGMENT_COLUMN = "segment";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdBlocks() {
+    }
+}
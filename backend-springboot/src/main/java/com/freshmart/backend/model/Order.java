@@ -22,7 +22,15 @@ import java.util.List;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(
+            name = "order_ids",
+            table = IdBlocks.TABLE,
+            pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN,
+            pkColumnValue = "orders",
+            allocationSize = IdBlocks.ALLOCATION_SIZE
+    )
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
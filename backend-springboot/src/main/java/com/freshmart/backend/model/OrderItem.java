@@ -15,7 +15,15 @@ import java.math.BigDecimal;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(
+            name = "order_item_ids",
+            table = IdBlocks.TABLE,
+            pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN,
+            pkColumnValue = "order_items",
+            allocationSize = IdBlocks.ALLOCATION_SIZE
+    )
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
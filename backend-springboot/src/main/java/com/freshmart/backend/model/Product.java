@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -43,12 +44,13 @@ public class Product {
     @Column(nullable = false)
     private String image;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     private List<String> images = new ArrayList<>();
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
     
@@ -75,11 +77,13 @@ public class Product {
     @Column(nullable = false)
     private ProductStatus status = ProductStatus.IN_STOCK;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_weights", joinColumns = @JoinColumn(name = "product_id"))
     private List<ProductWeight> weights = new ArrayList<>();
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
@@ -90,6 +94,9 @@ public class Product {
     @Column(name = "flash_sale_discount")
     private Integer flashSaleDiscount;
     
+    @Column(name = "flash_sale_start")
+    private LocalDateTime flashSaleStart;
+    
     @Column(name = "flash_sale_end")
     private LocalDateTime flashSaleEnd;
     
@@ -98,7 +105,8 @@ public class Product {
     
     private String expiry;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_promotions", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "promotion")
     private List<String> promotions = new ArrayList<>();
@@ -0,0 +1,34 @@
+package com.freshmart.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock move taken by the in-memory reservation ledger but not yet applied to {@code products}.
+ * Positive quantities are units sold, negative ones units given back. Rows are written and drained
+ * with plain JDBC by {@link com.freshmart.backend.repository.ProductStockRepository}.
+ */
+@Entity
+@Table(name = "stock_journal", indexes = @Index(name = "idx_stock_journal_product", columnList = "product_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
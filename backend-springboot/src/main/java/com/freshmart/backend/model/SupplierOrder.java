@@ -23,7 +23,15 @@ import java.util.List;
 public class SupplierOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "supplier_order_ids")
+    @TableGenerator(
+            name = "supplier_order_ids",
+            table = IdBlocks.TABLE,
+            pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN,
+            pkColumnValue = "supplier_orders",
+            allocationSize = IdBlocks.ALLOCATION_SIZE
+    )
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true)
@@ -0,0 +1,85 @@
+package com.freshmart.backend.pricing;
+
+import com.freshmart.backend.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * VND amounts as {@code long} đồng. The đồng has no fractional unit in use, so order arithmetic is done on
+ * primitive longs and amounts are converted from and to {@link BigDecimal} only where they enter or leave
+ * (request JSON, JPA columns). Arithmetic is overflow-checked.
+ */
+public final class Vnd {
+
+    private static final BigDecimal MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private Vnd() {
+    }
+
+    /** Exact conversion of a client-supplied amount; fractional or out-of-range amounts are rejected. */
+    public static long of(BigDecimal amount, String field) {
+        if (amount == null) {
+            throw new BadRequestException(field + " is required");
+        }
+        try {
+            return amount.scale() <= 0
+                    ? amount.longValueExact()
+                    : amount.setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new BadRequestException(field + " must be a whole number of VND: " + amount.toPlainString());
+        }
+    }
+
+    /**
+     * Lenient conversion for filters and index keys; {@code null} is 0 and amounts beyond the {@code long}
+     * range clamp to its ends, so a filter like {@code minPrice=1e20} simply matches nothing.
+     */
+    public static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        if (amount == null) {
+            return 0;
+        }
+        // Compared before rounding so a huge exponent never gets expanded
+        if (amount.compareTo(MAX) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (amount.compareTo(MIN) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return amount.setScale(0, roundingMode).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long amount) {
+        return BigDecimal.valueOf(amount);
+    }
+
+    public static long lineTotal(long unitPrice, int quantity) {
+        try {
+            return Math.multiplyExact(unitPrice, quantity);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    public static long add(long total, long amount) {
+        try {
+            return Math.addExact(total, amount);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    /** Items total plus shipping minus discount. */
+    public static long finalTotal(long itemsTotal, long shippingFee, long discount) {
+        try {
+            return Math.subtractExact(Math.addExact(itemsTotal, shippingFee), discount);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    private static BadRequestException outOfRange() {
+        return new BadRequestException("Order total is out of range");
+    }
+}
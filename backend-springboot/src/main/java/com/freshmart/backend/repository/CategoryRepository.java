@@ -1,9 +1,16 @@
 package com.freshmart.backend.repository;
 
 import com.freshmart.backend.model.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +19,21 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findBySlug(String slug);
     
     Optional<Category> findByName(String name);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Category c SET c.productCount = COALESCE(c.productCount, 0) + :delta WHERE c.id = :id")
+    int adjustProductCount(@Param("id") Long id, @Param("delta") int delta);
+    
+    @Query("SELECT c.id FROM Category c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE categories c " +
+            "SET c.product_count = (SELECT COUNT(*) FROM products p WHERE p.category_id = c.id) " +
+            "WHERE c.id IN (:ids) " +
+            "AND COALESCE(c.product_count, -1) <> (SELECT COUNT(*) FROM products p WHERE p.category_id = c.id)",
+            nativeQuery = true)
+    int reconcileProductCounts(@Param("ids") Collection<Long> ids);
 }
-
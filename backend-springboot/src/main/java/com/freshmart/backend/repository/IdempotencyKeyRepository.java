@@ -0,0 +1,69 @@
+package com.freshmart.backend.repository;
+
+import com.freshmart.backend.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (idempotency_key, request_hash, owner, claimed_at, expires_at) " +
+            "VALUES (:key, :requestHash, :owner, :claimedAt, :expiresAt)",
+            nativeQuery = true)
+    int claim(
+            @Param("key") String key,
+            @Param("requestHash") String requestHash,
+            @Param("owner") String owner,
+            @Param("claimedAt") LocalDateTime claimedAt,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    // Takes over a claim whose request never completed (its instance died mid-request) or an expired row not purged yet
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys " +
+            "SET request_hash = :requestHash, owner = :owner, status_code = NULL, response_body = NULL, " +
+            "claimed_at = :claimedAt, expires_at = :expiresAt " +
+            "WHERE idempotency_key = :key " +
+            "AND ((status_code IS NULL AND claimed_at < :staleBefore) OR expires_at < :claimedAt)",
+            nativeQuery = true)
+    int reclaim(
+            @Param("key") String key,
+            @Param("requestHash") String requestHash,
+            @Param("owner") String owner,
+            @Param("claimedAt") LocalDateTime claimedAt,
+            @Param("expiresAt") LocalDateTime expiresAt,
+            @Param("staleBefore") LocalDateTime staleBefore
+    );
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE idempotency_keys SET status_code = :statusCode, response_body = :responseBody " +
+            "WHERE idempotency_key = :key AND owner = :owner AND status_code IS NULL",
+            nativeQuery = true)
+    int complete(
+            @Param("key") String key,
+            @Param("owner") String owner,
+            @Param("statusCode") int statusCode,
+            @Param("responseBody") String responseBody
+    );
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND owner = :owner AND status_code IS NULL",
+            nativeQuery = true)
+    int release(@Param("key") String key, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -5,11 +5,19 @@ import com.freshmart.backend.model.Order.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -27,5 +35,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt DESC")
     List<Order> findOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
+    
+    /** Product ids from the user's orders, newest order first; may repeat across orders. */
+    @Query("SELECT i.product.id FROM OrderItem i " +
+            "WHERE i.order.user.id = :userId AND i.order.status <> :excluded ORDER BY i.order.createdAt DESC")
+    List<Long> findPurchasedProductIds(
+            @Param("userId") Long userId,
+            @Param("excluded") OrderStatus excluded,
+            Pageable pageable
+    );
+    
+    /** (order id, product id) pairs grouped by order, read forward-only without materializing entities. */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.order.id AS orderId, i.product.id AS productId FROM OrderItem i " +
+            "WHERE i.order.status <> :excluded ORDER BY i.order.id")
+    Stream<OrderLine> streamOrderLines(@Param("excluded") OrderStatus excluded);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status <> :excluded")
+    List<Long> findIdsByIdInAndStatusNot(@Param("ids") Collection<Long> ids, @Param("excluded") OrderStatus excluded);
+    
+    interface OrderLine {
+        Long getOrderId();
+        Long getProductId();
+    }
 }
 
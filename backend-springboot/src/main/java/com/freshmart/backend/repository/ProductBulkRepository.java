@@ -0,0 +1,148 @@
+package com.freshmart.backend.repository;
+
+import com.freshmart.backend.dto.ProductUpdateRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batch writes for bulk product imports. Products use IDENTITY keys, which keeps Hibernate
+ * from batching inserts, so imports go around the entity layer. With rewriteBatchedStatements on the
+ * MySQL URL each batch below becomes a handful of multi-row statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    // No placeholders after ON DUPLICATE KEY UPDATE, otherwise the driver cannot rewrite the batch.
+    // Like updateProduct, a flash-sale start or end the row leaves empty keeps its current value.
+    private static final String UPSERT_SQL = "INSERT INTO products (" +
+            "name, slug, description, price, original_price, image, category_id, category_slug, brand, origin, " +
+            "stock, sold, rating, review_count, status, is_flash_sale, flash_sale_discount, flash_sale_start, " +
+            "flash_sale_end, ingredients, expiry, created_at, updated_at, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, 0), COALESCE(?, 0), COALESCE(?, 0), " +
+            "?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), description = VALUES(description), " +
+            "price = VALUES(price), original_price = VALUES(original_price), image = VALUES(image), " +
+            "category_id = VALUES(category_id), category_slug = VALUES(category_slug), brand = VALUES(brand), " +
+            "origin = VALUES(origin), stock = VALUES(stock), status = VALUES(status), " +
+            "is_flash_sale = VALUES(is_flash_sale), flash_sale_discount = VALUES(flash_sale_discount), " +
+            "flash_sale_start = COALESCE(VALUES(flash_sale_start), flash_sale_start), " +
+            "flash_sale_end = COALESCE(VALUES(flash_sale_end), flash_sale_end), " +
+            "ingredients = VALUES(ingredients), expiry = VALUES(expiry), updated_at = VALUES(updated_at), " +
+            "updated_by = VALUES(updated_by)";
+
+    // Like updateProduct, counters an import row leaves empty keep their current value
+    private static final String UPDATE_COUNTERS_SQL = "UPDATE products SET sold = COALESCE(?, sold), " +
+            "rating = COALESCE(?, rating), review_count = COALESCE(?, review_count) WHERE slug = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void upsert(List<ProductUpdateRequest> requests, LocalDateTime now, String updatedBy) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, requests, requests.size(), (statement, request) -> {
+            statement.setString(1, request.getName());
+            statement.setString(2, request.getSlug());
+            statement.setString(3, request.getDescription());
+            statement.setBigDecimal(4, request.getPrice());
+            statement.setBigDecimal(5, request.getOriginalPrice());
+            statement.setString(6, request.getImage());
+            statement.setLong(7, request.getCategoryId());
+            statement.setString(8, request.getCategorySlug());
+            statement.setString(9, request.getBrand());
+            statement.setString(10, request.getOrigin());
+            statement.setInt(11, request.getStock());
+            statement.setObject(12, request.getSold());
+            statement.setObject(13, request.getRating());
+            statement.setObject(14, request.getReviewCount());
+            statement.setString(15, request.getStatus().name());
+            statement.setBoolean(16, Boolean.TRUE.equals(request.getIsFlashSale()));
+            statement.setObject(17, request.getFlashSaleDiscount());
+            statement.setObject(18, request.getFlashSaleStart() == null ? null : Timestamp.valueOf(request.getFlashSaleStart()));
+            statement.setObject(19, request.getFlashSaleEnd() == null ? null : Timestamp.valueOf(request.getFlashSaleEnd()));
+            statement.setString(20, request.getIngredients());
+            statement.setString(21, request.getExpiry());
+            statement.setTimestamp(22, timestamp);
+            statement.setTimestamp(23, timestamp);
+            statement.setString(24, updatedBy);
+        });
+
+        List<ProductUpdateRequest> withCounters = requests.stream()
+                .filter(request -> request.getSold() != null || request.getRating() != null || request.getReviewCount() != null)
+                .toList();
+        if (!withCounters.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_COUNTERS_SQL, withCounters, withCounters.size(), (statement, request) -> {
+                statement.setObject(1, request.getSold());
+                statement.setObject(2, request.getRating());
+                statement.setObject(3, request.getReviewCount());
+                statement.setString(4, request.getSlug());
+            });
+        }
+    }
+
+    public Map<String, Long> findIdsBySlug(Collection<String> slugs) {
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT id, slug FROM products WHERE slug IN (:slugs)",
+                Map.of("slugs", slugs),
+                resultSet -> {
+                    ids.put(resultSet.getString("slug"), resultSet.getLong("id"));
+                }
+        );
+        return ids;
+    }
+
+    /**
+     * Replaces images, tags and promotions of every imported product, and weights of those rows that
+     * carry weights (updateProduct leaves weights alone when none are sent, so does the import).
+     */
+    public void replaceCollections(List<ProductUpdateRequest> requests, Map<String, Long> idsBySlug) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> weightIds = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        List<Object[]> promotions = new ArrayList<>();
+        List<Object[]> weights = new ArrayList<>();
+
+        for (ProductUpdateRequest request : requests) {
+            Long id = idsBySlug.get(request.getSlug());
+            ids.add(id);
+            addAll(images, id, request.getImages());
+            addAll(tags, id, request.getTags());
+            addAll(promotions, id, request.getPromotions());
+            if (request.getWeights() != null) {
+                weightIds.add(id);
+                request.getWeights().forEach(weight -> weights.add(new Object[]{id, weight.getValue(), weight.getPrice()}));
+            }
+        }
+
+        Map<String, Object> params = Map.of("ids", ids);
+        namedParameterJdbcTemplate.update("DELETE FROM product_images WHERE product_id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM product_tags WHERE product_id IN (:ids)", params);
+        namedParameterJdbcTemplate.update("DELETE FROM product_promotions WHERE product_id IN (:ids)", params);
+        if (!weightIds.isEmpty()) {
+            namedParameterJdbcTemplate.update("DELETE FROM product_weights WHERE product_id IN (:ids)", Map.of("ids", weightIds));
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO product_images (product_id, image_url) VALUES (?, ?)", images);
+        jdbcTemplate.batchUpdate("INSERT INTO product_tags (product_id, tag) VALUES (?, ?)", tags);
+        jdbcTemplate.batchUpdate("INSERT INTO product_promotions (product_id, promotion) VALUES (?, ?)", promotions);
+        jdbcTemplate.batchUpdate("INSERT INTO product_weights (product_id, `value`, price) VALUES (?, ?, ?)", weights);
+    }
+
+    private void addAll(List<Object[]> rows, Long id, List<String> values) {
+        if (values != null) {
+            values.forEach(value -> rows.add(new Object[]{id, value}));
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.freshmart.backend.repository;
 
+import com.freshmart.backend.dto.ProductCardDto;
 import com.freshmart.backend.model.Product;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    String CARD_SELECT = "SELECT new com.freshmart.backend.dto.ProductCardDto(" +
+            "p.id, p.name, p.slug, p.price, p.originalPrice, p.image, p.categorySlug, p.brand, p.origin, " +
+            "p.stock, p.sold, p.rating, p.reviewCount, p.status, p.isFlashSale, p.flashSaleDiscount, " +
+            "p.flashSaleEnd, p.createdAt) FROM Product p ";
     
     Optional<Product> findBySlug(String slug);
     
+    List<Product> findBySlugIn(Collection<String> slugs);
+    
     List<Product> findByCategorySlugOrderBySoldDesc(String categorySlug);
     
     @Query("SELECT p FROM Product p WHERE " +
@@ -39,14 +55,49 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             Pageable pageable
     );
     
-    List<Product> findByIsFlashSaleTrueAndFlashSaleEndAfterOrderBySoldDesc(LocalDateTime now);
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<ProductCardDto> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(CARD_SELECT + "WHERE p.isFlashSale = true AND p.flashSaleEnd > :now " +
+           "AND (p.flashSaleStart IS NULL OR p.flashSaleStart <= :now) ORDER BY p.sold DESC")
+    List<ProductCardDto> findFlashSaleCards(@Param("now") LocalDateTime now);
+    
+    @Query(CARD_SELECT + "ORDER BY p.sold DESC")
+    List<ProductCardDto> findTopCardsBySold(Pageable pageable);
+    
+    /** Forward-only read of every product; needs useCursorFetch on the MySQL URL to stream instead of buffering. */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
     
-    List<Product> findTop8ByOrderBySoldDesc();
+    @Query("SELECT p.id AS id, p.categorySlug AS categorySlug, p.sold AS sold FROM Product p")
+    List<ProductSales> findAllSales();
+    
+    @Query("SELECT p.id AS id, p.categorySlug AS categorySlug, p.sold AS sold FROM Product p WHERE p.id IN :ids")
+    List<ProductSales> findSalesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id AS id, p.flashSaleStart AS flashSaleStart, p.flashSaleEnd AS flashSaleEnd " +
+           "FROM Product p WHERE p.isFlashSale = true")
+    List<FlashSaleWindow> findFlashSaleWindows();
     
     @Query("SELECT DISTINCT p.origin FROM Product p WHERE p.origin IS NOT NULL")
     List<String> findAllOrigins();
     
     @Query("SELECT DISTINCT p.brand FROM Product p WHERE p.brand IS NOT NULL")
     List<String> findAllBrands();
-}
 
+    interface ProductSales {
+        Long getId();
+        String getCategorySlug();
+        Integer getSold();
+    }
+
+    interface FlashSaleWindow {
+        Long getId();
+        LocalDateTime getFlashSaleStart();
+        LocalDateTime getFlashSaleEnd();
+    }
+}
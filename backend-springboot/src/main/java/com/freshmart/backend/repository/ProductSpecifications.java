@@ -0,0 +1,96 @@
+package com.freshmart.backend.repository;
+
+import com.freshmart.backend.model.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria counterparts of {@link ProductRepository#findWithFilters}. Only the predicates for filters that are
+ * actually set are emitted, which keeps the generated SQL index-friendly.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> withFilters(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock
+    ) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (category != null) {
+                predicates.add(cb.equal(root.get("categorySlug"), category));
+            }
+            if (search != null) {
+                String pattern = "%" + search.toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("description")), pattern)
+                ));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (origin != null) {
+                predicates.add(cb.equal(root.get("origin"), origin));
+            }
+            if (brand != null) {
+                predicates.add(cb.equal(root.get("brand"), brand));
+            }
+            if (Boolean.TRUE.equals(inStock)) {
+                predicates.add(cb.greaterThan(root.get("stock"), 0));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset predicate {@code (key, id) > (afterKey, afterId)}, or {@code <} when descending.
+     * Null keys are placed as MySQL sorts them: first when ascending, last when descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> after(
+            String property,
+            Comparable<?> afterKey,
+            Long afterId,
+            boolean descending
+    ) {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(property);
+            Path<Long> id = root.get("id");
+            if (afterKey == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), beyond(cb, id, afterId, descending));
+                return descending ? sameKey : cb.or(cb.isNotNull(key), sameKey);
+            }
+            Predicate after = cb.or(
+                    beyond(cb, key, (Comparable) afterKey, descending),
+                    cb.and(cb.equal(key, afterKey), beyond(cb, id, afterId, descending))
+            );
+            return descending ? cb.or(after, cb.isNull(key)) : after;
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate beyond(
+            CriteriaBuilder cb,
+            Path<T> path,
+            T value,
+            boolean descending
+    ) {
+        return descending ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+}
@@ -0,0 +1,159 @@
+package com.freshmart.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Single-statement stock moves. Each decrement checks and updates the row in one statement, so two
+ * checkouts can never both take the last unit and no {@code sold} increment is lost. Rows are always
+ * touched in ascending id order so concurrent baskets lock them in the same order and cannot deadlock.
+ * The {@code stock_journal} statements back the write-behind mode of
+ * {@link com.freshmart.backend.catalog.StockReservationLedger}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock = stock - ?, sold = sold + ? WHERE id = ? AND stock >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET stock = stock + ?, sold = GREATEST(sold - ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Takes {@code quantities} (product id to units) in one batch.
+     *
+     * @return ids whose stock was insufficient (or that no longer exist); empty when every line was taken.
+     *         The caller must roll back the transaction when this is not empty.
+     */
+    public List<Long> decrement(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        List<Long> failed = new ArrayList<>();
+        if (lines.isEmpty()) {
+            return failed;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setInt(2, line.getValue());
+            statement.setLong(3, line.getKey());
+            statement.setInt(4, line.getValue());
+        });
+        int line = 0;
+        for (int[] batch : counts) {
+            for (int updated : batch) {
+                if (updated == 0) {
+                    failed.add(lines.get(line).getKey());
+                }
+                line++;
+            }
+        }
+        return failed;
+    }
+
+    public void increment(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setInt(2, line.getValue());
+            statement.setLong(3, line.getKey());
+        });
+    }
+
+    /** Current stock and sold; read inside the writing transaction these are exactly the values it wrote. */
+    public Map<Long, StockLevel> findLevels(Collection<Long> ids) {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT id, stock, sold FROM products WHERE id IN (:ids)",
+                Map.of("ids", ids),
+                resultSet -> {
+                    levels.put(resultSet.getLong("id"), new StockLevel(resultSet.getInt("stock"), resultSet.getInt("sold")));
+                }
+        );
+        return levels;
+    }
+
+    /** Queues signed stock moves for the write-behind flush; runs in the caller's transaction. */
+    public void appendJournal(Map<Long, Integer> quantities) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_journal (product_id, quantity, created_at) VALUES (?, ?, ?)",
+                lines,
+                lines.size(),
+                (statement, line) -> {
+                    statement.setLong(1, line.getKey());
+                    statement.setInt(2, line.getValue());
+                    statement.setTimestamp(3, now);
+                }
+        );
+    }
+
+    /**
+     * Stock minus the journal moves not yet applied, or null when the product does not exist. Runs on the
+     * caller's connection with locking reads, which see the latest committed rows even inside a REPEATABLE
+     * READ transaction. The journal is locked before the product, the order the flush locks them in.
+     */
+    public Long lockAvailable(Long productId) {
+        Long pending = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_journal WHERE product_id = ? FOR SHARE",
+                Long.class,
+                productId
+        );
+        List<Long> stock = jdbcTemplate.queryForList(
+                "SELECT stock FROM products WHERE id = ? FOR SHARE", Long.class, productId
+        );
+        return stock.isEmpty() ? null : stock.get(0) - pending;
+    }
+
+    /** Oldest journal rows, locked until the draining transaction ends. */
+    public List<JournalEntry> lockJournal(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, product_id, quantity FROM stock_journal ORDER BY id LIMIT ? FOR UPDATE",
+                (resultSet, row) -> new JournalEntry(
+                        resultSet.getLong("id"), resultSet.getLong("product_id"), resultSet.getInt("quantity")
+                ),
+                limit
+        );
+    }
+
+    /** Applies summed journal moves, one statement per product in ascending id order. */
+    public void applyJournal(Map<Long, Integer> totals) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(totals).entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock = GREATEST(stock - ?, 0), sold = GREATEST(sold + ?, 0) WHERE id = ?",
+                lines,
+                lines.size(),
+                (statement, line) -> {
+                    statement.setInt(1, line.getValue());
+                    statement.setInt(2, line.getValue());
+                    statement.setLong(3, line.getKey());
+                }
+        );
+    }
+
+    public void deleteJournal(Collection<Long> ids) {
+        namedParameterJdbcTemplate.update("DELETE FROM stock_journal WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    public record StockLevel(int stock, int sold) {
+    }
+
+    public record JournalEntry(long id, long productId, int quantity) {
+    }
+}
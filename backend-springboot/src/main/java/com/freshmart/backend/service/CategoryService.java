@@ -1,19 +1,32 @@
 package com.freshmart.backend.service;
 
+import com.freshmart.backend.event.CategoryChangedEvent;
 import com.freshmart.backend.exception.ResourceNotFoundException;
 import com.freshmart.backend.model.Category;
 import com.freshmart.backend.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${catalog.category-counts.batch-size:100}")
+    private int reconcileBatchSize;
     
     @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
@@ -34,7 +47,10 @@ public class CategoryService {
     
     @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        category.setProductCount(0);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
     
     @Transactional
@@ -46,13 +62,37 @@ public class CategoryService {
         category.setIcon(categoryDetails.getIcon());
         category.setImage(categoryDetails.getImage());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
     
     @Transactional
     public void deleteCategory(Long id) {
         Category category = getCategoryById(id);
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+    }
+    
+    /**
+     * Repairs drifted product counts, one batch of categories per transaction so category rows
+     * are never locked for long. Counter updates from product writes keep counts right between runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${catalog.category-counts.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${catalog.category-counts.reconcile-interval-ms:3600000}"
+    )
+    public void reconcileProductCounts() {
+        int repaired = 0;
+        List<Long> ids = categoryRepository.findIdsAfter(0L, PageRequest.of(0, reconcileBatchSize));
+        while (!ids.isEmpty()) {
+            repaired += categoryRepository.reconcileProductCounts(ids);
+            ids = categoryRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, reconcileBatchSize));
+        }
+        if (repaired > 0) {
+            log.info("Repaired product counts of {} categories", repaired);
+            eventPublisher.publishEvent(CategoryChangedEvent.countChanged(null));
+        }
     }
 }
-
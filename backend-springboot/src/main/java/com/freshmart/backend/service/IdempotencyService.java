@@ -0,0 +1,224 @@
+package com.freshmart.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.cache.BoundedCache;
+import com.freshmart.backend.exception.BadRequestException;
+import com.freshmart.backend.exception.IdempotencyConflictException;
+import com.freshmart.backend.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response afterwards.
+ * Duplicates arriving while the first request runs on this instance wait for its result (single flight);
+ * across instances the {@code idempotency_keys} row is the lock. The response is stored in the same
+ * transaction as the request's writes, so a committed request always has its response on record.
+ * Failed requests store nothing and release the key so the client can retry.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requestTransaction;
+    private final BoundedCache<String, IdempotentResponse> completed;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public IdempotencyService(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${orders.idempotency.lock-timeout-ms:30000}") long lockTimeoutMs,
+            @Value("${orders.idempotency.cache.max-size:10000}") int cacheSize
+    ) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.requestTransaction = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lockTimeout = Duration.ofMillis(lockTimeoutMs);
+        this.completed = new BoundedCache<>(cacheSize, ttl.toSeconds());
+    }
+
+    /**
+     * @param key     client key, already scoped to the caller (e.g. prefixed with the user id)
+     * @param request request payload; a key reused with a different payload is rejected
+     * @param status  status to answer with when {@code action} succeeds
+     * @param action  runs inside the transaction that records the response; returns the response body
+     */
+    public IdempotentResponse execute(String key, Object request, HttpStatus status, Supplier<Object> action) {
+        String requestHash = hash(request);
+        IdempotentResponse stored = completed.get(key, this::loadCompleted);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        Flight flight = new Flight(requestHash, new CompletableFuture<>());
+        Flight running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(running, requestHash);
+        }
+        try {
+            IdempotentResponse response = run(key, requestHash, status, action);
+            flight.result().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            flight.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${orders.idempotency.purge-interval-ms:600000}",
+            fixedDelayString = "${orders.idempotency.purge-interval-ms:600000}"
+    )
+    public void purgeExpired() {
+        // Small batches so the purge never holds many row locks at once
+        LocalDateTime now = LocalDateTime.now();
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpired(now, PURGE_BATCH_SIZE);
+        } while (deleted == PURGE_BATCH_SIZE);
+    }
+
+    private IdempotentResponse run(String key, String requestHash, HttpStatus status, Supplier<Object> action) {
+        String owner = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (idempotencyKeyRepository.claim(key, requestHash, owner, now, expiresAt) == 0
+                && idempotencyKeyRepository.reclaim(key, requestHash, owner, now, expiresAt, now.minus(lockTimeout)) == 0) {
+            IdempotentResponse stored = loadCompleted(key);
+            if (stored == null) {
+                throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            completed.put(key, stored);
+            return replay(stored, requestHash);
+        }
+
+        try {
+            IdempotentResponse response = requestTransaction.execute(tx -> {
+                String body = serialize(action.get());
+                if (idempotencyKeyRepository.complete(key, owner, status.value(), body) == 0) {
+                    throw new IdempotencyConflictException("The claim on this " + HEADER + " expired before the request finished");
+                }
+                return new IdempotentResponse(requestHash, status.value(), body, false);
+            });
+            completed.put(key, response);
+            return response;
+        } catch (RuntimeException ex) {
+            try {
+                idempotencyKeyRepository.release(key, owner);
+            } catch (RuntimeException releaseFailure) {
+                // the claim goes stale and is taken over by the next retry
+                ex.addSuppressed(releaseFailure);
+            }
+            throw ex;
+        }
+    }
+
+    private IdempotentResponse await(Flight running, String requestHash) {
+        if (!running.requestHash().equals(requestHash)) {
+            throw mismatch();
+        }
+        try {
+            IdempotentResponse response = running.result().get(lockTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return replay(response, requestHash);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+    }
+
+    private IdempotentResponse loadCompleted(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return idempotencyKeyRepository.findById(key)
+                .filter(row -> row.getStatusCode() != null && row.getExpiresAt().isAfter(now))
+                .map(row -> new IdempotentResponse(row.getRequestHash(), row.getStatusCode(), row.getResponseBody(), false))
+                .orElse(null);
+    }
+
+    private IdempotentResponse replay(IdempotentResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw mismatch();
+        }
+        return new IdempotentResponse(stored.requestHash(), stored.status(), stored.body(), true);
+    }
+
+    private BadRequestException mismatch() {
+        return new BadRequestException(HEADER + " was already used with a different request");
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize response", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint request", ex);
+        }
+    }
+
+    public record IdempotentResponse(String requestHash, int status, String body, boolean replayed) {
+
+        public ResponseEntity<String> toResponseEntity() {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(REPLAYED_HEADER, String.valueOf(replayed))
+                    .body(body);
+        }
+    }
+
+    private record Flight(String requestHash, CompletableFuture<IdempotentResponse> result) {
+    }
+}
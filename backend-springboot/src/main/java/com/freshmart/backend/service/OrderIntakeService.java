@@ -0,0 +1,323 @@
+package com.freshmart.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.dto.OrderIntakeStatusDto;
+import com.freshmart.backend.dto.OrderSummaryDto;
+import com.freshmart.backend.exception.OutOfStockException;
+import com.freshmart.backend.exception.ResourceNotFoundException;
+import com.freshmart.backend.exception.TooManyRequestsException;
+import com.freshmart.backend.model.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous checkout. When enabled, {@code POST /api/orders} only validates the request and puts it on a
+ * bounded in-process queue; a small pool of workers drains the queue and places up to {@code batch-size}
+ * orders per transaction, so request threads never hold a database connection for an order. A batch that
+ * fails is retried order by order so one failing order (e.g. out of stock) only costs itself.
+ * A full queue is answered with 429 and Retry-After. Results are kept by token for polling, for as long as an
+ * idempotent replay may still hand the token out when the request carried an {@code Idempotency-Key}; queued
+ * orders live in memory only, so they are drained on shutdown but lost if the process dies.
+ */
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String PROCESSING = "PROCESSING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 30;
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long retryAfterSeconds;
+    private final Duration resultTtl;
+    private final Duration replayableResultTtl;
+    private final Semaphore capacity;
+    private final BlockingQueue<Ticket> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final ExecutorService pool;
+
+    private volatile boolean stopping;
+
+    public OrderIntakeService(
+            OrderService orderService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.intake.async:false}") boolean enabled,
+            @Value("${orders.intake.queue-capacity:2000}") int queueCapacity,
+            @Value("${orders.intake.workers:4}") int workers,
+            @Value("${orders.intake.batch-size:10}") int batchSize,
+            @Value("${orders.intake.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${orders.intake.result-ttl-seconds:900}") long resultTtlSeconds,
+            @Value("${orders.idempotency.ttl-hours:24}") long idempotencyTtlHours
+    ) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = Math.max(1, batchSize);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+        this.replayableResultTtl = max(resultTtl, Duration.ofHours(idempotencyTtlHours));
+        this.capacity = new Semaphore(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-intake-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            pool.submit(this::drain);
+        }
+    }
+
+    /**
+     * Queues {@code order} and returns its ticket. Inside a transaction (an idempotent request recording
+     * its response) the order is only handed to the workers once that transaction commits, and dropped if
+     * it rolls back. {@code replayable} tickets are kept for the idempotency TTL instead of the result TTL,
+     * since a replayed response can hand out their token until then.
+     */
+    public OrderIntakeStatusDto submit(Order order, Long userId, boolean replayable) {
+        OrderService.validateOrderRequest(order);
+        if (stopping) {
+            throw new TooManyRequestsException("Order intake is shutting down", retryAfterSeconds);
+        }
+        if (!capacity.tryAcquire()) {
+            throw new TooManyRequestsException("Too many orders are being placed right now, please retry shortly", retryAfterSeconds);
+        }
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), userId, serialize(order),
+                replayable ? replayableResultTtl : resultTtl);
+        tickets.put(ticket.token, ticket);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            queue.add(ticket);
+            return ticket.toDto();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    queue.add(ticket);
+                } else {
+                    tickets.remove(ticket.token);
+                    capacity.release();
+                }
+            }
+        });
+        return ticket.toDto();
+    }
+
+    public OrderIntakeStatusDto getStatus(String token) {
+        return ticket(token).toDto();
+    }
+
+    /** Completes when the order is placed or failed, or after {@code wait} with the state at that point. */
+    public CompletableFuture<OrderIntakeStatusDto> awaitStatus(String token, Duration wait) {
+        Ticket ticket = ticket(token);
+        return ticket.done.copy()
+                .completeOnTimeout(null, wait.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> ticket.toDto());
+    }
+
+    @Scheduled(fixedDelayString = "${orders.intake.purge-interval-ms:60000}")
+    public void purgeFinished() {
+        LocalDateTime now = LocalDateTime.now();
+        tickets.values().removeIf(ticket -> ticket.finishedAt != null
+                && ticket.finishedAt.isBefore(now.minus(ticket.retention)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Stop taking orders and let the workers place what is already queued
+        stopping = true;
+        pool.shutdown();
+        if (!pool.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Order intake stopped with {} orders still queued", queue.size());
+            pool.shutdownNow();
+        }
+    }
+
+    private void drain() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (stopping) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                capacity.release(batch.size());
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Order intake worker failed on a batch of {}", batch.size(), e);
+                batch.forEach(ticket -> ticket.fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        batch.forEach(ticket -> ticket.state = PROCESSING);
+        if (batch.size() > 1) {
+            try {
+                List<OrderSummaryDto> placed = transactionTemplate.execute(status -> batch.stream()
+                        .map(this::place)
+                        .toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(placed.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Order batch of {} failed, placing orders one by one: {}", batch.size(), e.getMessage());
+            }
+        }
+        for (Ticket ticket : batch) {
+            try {
+                ticket.complete(transactionTemplate.execute(status -> place(ticket)));
+            } catch (RuntimeException e) {
+                ticket.fail(e);
+            }
+        }
+    }
+
+    private OrderSummaryDto place(Ticket ticket) {
+        // Each attempt works on a fresh copy: a rolled-back attempt leaves ids and entities on the one it used
+        Order order;
+        try {
+            order = objectMapper.readValue(ticket.payload, Order.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read queued order " + ticket.token, e);
+        }
+        return orderService.toSummary(orderService.createOrder(order, ticket.userId));
+    }
+
+    private Ticket ticket(String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Order request not found with token: " + token);
+        }
+        return ticket;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private byte[] serialize(Order order) {
+        try {
+            return objectMapper.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not queue order", e);
+        }
+    }
+
+    private static class Ticket {
+
+        private final String token;
+        private final Long userId;
+        private final Duration retention;
+        private volatile byte[] payload;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile String state = QUEUED;
+        private volatile OrderSummaryDto order;
+        private volatile String message;
+        private volatile List<Long> productIds;
+        private volatile LocalDateTime finishedAt;
+
+        Ticket(String token, Long userId, byte[] payload, Duration retention) {
+            this.token = token;
+            this.userId = userId;
+            this.payload = payload;
+            this.retention = retention;
+        }
+
+        void complete(OrderSummaryDto placed) {
+            order = placed;
+            state = COMPLETED;
+            finish();
+        }
+
+        void fail(RuntimeException e) {
+            if (e instanceof OutOfStockException outOfStock) {
+                productIds = outOfStock.getProductIds();
+            }
+            message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            state = FAILED;
+            finish();
+        }
+
+        private void finish() {
+            // Finished tickets may be kept for a day; only the result is needed from here on
+            payload = null;
+            finishedAt = LocalDateTime.now();
+            done.complete(null);
+        }
+
+        OrderIntakeStatusDto toDto() {
+            return OrderIntakeStatusDto.builder()
+                    .token(token)
+                    .state(state)
+                    .order(order)
+                    .message(message)
+                    .productIds(productIds)
+                    .queuedAt(queuedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package com.freshmart.backend.service;
 
+import com.freshmart.backend.dto.OrderSummaryDto;
+import com.freshmart.backend.event.OrderChangedEvent;
+import com.freshmart.backend.exception.BadRequestException;
 import com.freshmart.backend.exception.ResourceNotFoundException;
 import com.freshmart.backend.model.Order;
 import com.freshmart.backend.model.Order.OrderStatus;
 import com.freshmart.backend.model.OrderItem;
 import com.freshmart.backend.model.Product;
 import com.freshmart.backend.model.User;
+import com.freshmart.backend.pricing.Vnd;
 import com.freshmart.backend.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +33,7 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductService productService;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
@@ -58,23 +67,34 @@ public class OrderService {
         User user = userService.getUserById(userId);
         order.setUser(user);
         
-        // Calculate totals
-        BigDecimal itemsTotal = BigDecimal.ZERO;
+        validateOrderRequest(order);
+        
+        // Resolve every line's product with one query
+        Map<Long, Product> products = productService.getProductsByIds(order.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet()));
+        
+        // Calculate totals in whole VND
+        long itemsTotal = 0;
+        Map<Long, Integer> quantities = new HashMap<>();
         
         for (OrderItem item : order.getItems()) {
-            Product product = productService.getProductById(item.getProduct().getId());
+            Product product = products.get(item.getProduct().getId());
             item.setProduct(product);
             item.setOrder(order);
             
-            BigDecimal itemTotal = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            itemsTotal = itemsTotal.add(itemTotal);
+            itemsTotal = Vnd.add(itemsTotal, Vnd.lineTotal(Vnd.of(item.getPrice(), "price"), item.getQuantity()));
             
-            // Update product stock
-            productService.updateProductStock(product.getId(), item.getQuantity());
+            quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
         }
         
-        order.setTotal(itemsTotal);
-        order.setFinalTotal(itemsTotal.add(order.getShippingFee()).subtract(order.getDiscount()));
+        // Take stock for the whole basket at once; fails the order if any line is short
+        productService.reserveStock(products.values(), quantities);
+        
+        long shippingFee = Vnd.of(order.getShippingFee(), "shippingFee");
+        long discount = order.getDiscount() == null ? 0 : Vnd.of(order.getDiscount(), "discount");
+        order.setTotal(Vnd.toBigDecimal(itemsTotal));
+        order.setFinalTotal(Vnd.toBigDecimal(Vnd.finalTotal(itemsTotal, shippingFee, discount)));
         
         // Set estimated delivery based on delivery option
         LocalDateTime estimatedDelivery = switch (order.getDeliveryOption()) {
@@ -84,14 +104,21 @@ public class OrderService {
         };
         order.setEstimatedDelivery(estimatedDelivery);
         
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.placed(saved));
+        return saved;
     }
     
     @Transactional
     public Order updateOrderStatus(Long id, OrderStatus status) {
         Order order = getOrderById(id);
+        boolean cancelling = status == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.CANCELLED;
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        if (cancelling) {
+            eventPublisher.publishEvent(OrderChangedEvent.cancelled(saved));
+        }
+        return saved;
     }
     
     @Transactional
@@ -101,13 +128,16 @@ public class OrderService {
             order.setStatus(OrderStatus.CANCELLED);
             
             // Restore product stock
+            Map<Long, Product> products = new LinkedHashMap<>();
+            Map<Long, Integer> quantities = new HashMap<>();
             for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                product.setStock(product.getStock() + item.getQuantity());
-                product.setSold(product.getSold() - item.getQuantity());
+                products.put(item.getProduct().getId(), item.getProduct());
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
             }
+            productService.releaseStock(products.values(), quantities);
             
             orderRepository.save(order);
+            eventPublisher.publishEvent(OrderChangedEvent.cancelled(order));
         } else {
             throw new IllegalStateException("Cannot cancel order in status: " + order.getStatus());
         }
@@ -117,5 +147,53 @@ public class OrderService {
     public Long countOrdersByStatus(OrderStatus status) {
         return orderRepository.countByStatus(status);
     }
+    
+    /** Checks that need no database, so they can run before an order is queued. */
+    public static void validateOrderRequest(Order order) {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new BadRequestException("Order has no items");
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new BadRequestException("Every order item needs a product id");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Quantity must be positive for product " + item.getProduct().getId());
+            }
+            Vnd.of(item.getPrice(), "price");
+        }
+        Vnd.of(order.getShippingFee(), "shippingFee");
+        if (order.getDiscount() != null) {
+            Vnd.of(order.getDiscount(), "discount");
+        }
+        if (order.getPaymentMethod() == null || order.getDeliveryOption() == null) {
+            throw new BadRequestException("Payment method and delivery option are required");
+        }
+    }
+    
+    public OrderSummaryDto toSummary(Order order) {
+        return OrderSummaryDto.builder()
+                .id(order.getId())
+                .userId(order.getUser().getId())
+                .status(order.getStatus().name())
+                .paymentMethod(order.getPaymentMethod().name())
+                .deliveryOption(order.getDeliveryOption().name())
+                .total(order.getTotal())
+                .shippingFee(order.getShippingFee())
+                .discount(order.getDiscount())
+                .finalTotal(order.getFinalTotal())
+                .items(order.getItems().stream()
+                        .map(item -> OrderSummaryDto.Item.builder()
+                                .productId(item.getProduct().getId())
+                                .productName(item.getProduct().getName())
+                                .quantity(item.getQuantity())
+                                .selectedWeight(item.getSelectedWeight())
+                                .price(item.getPrice())
+                                .build())
+                        .toList())
+                .estimatedDelivery(order.getEstimatedDelivery())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
 }
 
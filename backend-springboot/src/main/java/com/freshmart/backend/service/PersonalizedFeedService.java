@@ -0,0 +1,126 @@
+package com.freshmart.backend.service;
+
+import com.freshmart.backend.cache.PersonalizedFeedCache;
+import com.freshmart.backend.catalog.BestSellerLeaderboard;
+import com.freshmart.backend.catalog.CoPurchaseGraph;
+import com.freshmart.backend.dto.ProductCardDto;
+import com.freshmart.backend.model.Order.OrderStatus;
+import com.freshmart.backend.model.User;
+import com.freshmart.backend.repository.OrderRepository;
+import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.ProductRepository.ProductSales;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "For you" feed. Seeds are the user's wishlist and recent purchases; candidates are scored from
+ * products bought together with a seed, best sellers of the categories the seeds fall in (weighted by
+ * how many seeds each category holds) and overall best sellers. Wishlisted products are left out.
+ * Rankings are computed on first request and cached per user in {@link PersonalizedFeedCache}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonalizedFeedService {
+
+    private static final double WISHLIST_WEIGHT = 2.0;
+    private static final double PURCHASE_WEIGHT = 1.0;
+    private static final double CO_PURCHASE_WEIGHT = 1.0;
+    private static final double CATEGORY_WEIGHT = 0.6;
+    private static final double POPULARITY_WEIGHT = 0.2;
+    private static final int PURCHASE_LINES = 200;
+    private static final int MAX_SEEDS = 50;
+    private static final int CATEGORY_CANDIDATES = 20;
+
+    private final UserService userService;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final BestSellerLeaderboard bestSellerLeaderboard;
+    private final CoPurchaseGraph coPurchaseGraph;
+    private final PersonalizedFeedCache feedCache;
+
+    @Value("${catalog.feed.size:20}")
+    private int feedSize;
+
+    @Transactional(readOnly = true)
+    public List<ProductCardDto> getFeed(Long userId) {
+        List<Long> ids = feedCache.get(userId, this::rank);
+        if (ids.isEmpty()) {
+            return productRepository.findTopCardsBySold(PageRequest.of(0, feedSize));
+        }
+        Map<Long, ProductCardDto> cardsById = productRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductCardDto::getId, Function.identity()));
+        return ids.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<Long> rank(Long userId) {
+        User user = userService.getUserById(userId);
+        Set<Long> wishlist = Set.copyOf(user.getWishlist());
+
+        Map<Long, Double> seeds = new LinkedHashMap<>();
+        wishlist.forEach(productId -> seeds.put(productId, WISHLIST_WEIGHT));
+        orderRepository.findPurchasedProductIds(userId, OrderStatus.CANCELLED, PageRequest.of(0, PURCHASE_LINES))
+                .forEach(productId -> seeds.merge(productId, PURCHASE_WEIGHT, Double::sum));
+        Map<Long, Double> limitedSeeds = seeds.entrySet().stream()
+                .limit(MAX_SEEDS)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        Map<Long, Double> scores = new HashMap<>();
+        limitedSeeds.forEach((productId, weight) -> coPurchaseGraph.neighbours(productId, Integer.MAX_VALUE)
+                .forEach(neighbour -> scores.merge(
+                        neighbour.productId(), CO_PURCHASE_WEIGHT * weight * neighbour.confidence(), Double::sum)));
+
+        if (bestSellerLeaderboard.isReady()) {
+            Map<String, Double> affinity = categoryAffinity(limitedSeeds);
+            affinity.forEach((categorySlug, share) ->
+                    addByRank(scores, bestSellerLeaderboard.top(categorySlug, CATEGORY_CANDIDATES), CATEGORY_WEIGHT * share));
+            addByRank(scores, bestSellerLeaderboard.top(null, feedSize), POPULARITY_WEIGHT);
+        }
+
+        return scores.entrySet().stream()
+                .filter(entry -> !wishlist.contains(entry.getKey()))
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .limit(feedSize)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** Share of the seed weight falling in each category. */
+    private Map<String, Double> categoryAffinity(Map<Long, Double> seeds) {
+        if (seeds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (ProductSales product : productRepository.findSalesByIdIn(seeds.keySet())) {
+            if (product.getCategorySlug() != null) {
+                weights.merge(product.getCategorySlug(), seeds.get(product.getId()), Double::sum);
+            }
+        }
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        weights.replaceAll((categorySlug, weight) -> weight / total);
+        return weights;
+    }
+
+    /** Linearly decaying bonus: the first id gets {@code weight}, the last close to zero. */
+    private static void addByRank(Map<Long, Double> scores, List<Long> ranked, double weight) {
+        for (int i = 0; i < ranked.size(); i++) {
+            scores.merge(ranked.get(i), weight * (ranked.size() - i) / ranked.size(), Double::sum);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.freshmart.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.dto.ProductExportRow;
+import com.freshmart.backend.exception.BadRequestException;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to a stream without holding it in memory: products are read through a
+ * server-side cursor and the persistence context is cleared after every chunk.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String[] CSV_HEADER = {
+            "id", "slug", "name", "categorySlug", "brand", "origin", "price", "originalPrice", "stock",
+            "status", "isFlashSale", "flashSaleDiscount", "image", "tags", "updatedAt"
+    };
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Unsupported export format: " + value);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            if (format == Format.CSV) {
+                writeCsv(products.iterator(), out);
+            } else {
+                writeNdjson(products.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<Product> products, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        int written = 0;
+        while (products.hasNext()) {
+            objectMapper.writeValue(generator, toRow(products.next()));
+            generator.writeRaw('\n');
+            if (++written % CHUNK_SIZE == 0) {
+                endChunk(generator);
+            }
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<Product> products, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\r\n");
+        int written = 0;
+        while (products.hasNext()) {
+            ProductExportRow row = toRow(products.next());
+            writeCsvLine(writer,
+                    row.getId(), row.getSlug(), row.getName(), row.getCategorySlug(), row.getBrand(), row.getOrigin(),
+                    row.getPrice(), row.getOriginalPrice(), row.getStock(), row.getStatus(), row.getIsFlashSale(),
+                    row.getFlashSaleDiscount(), row.getImage(), String.join("|", row.getTags()), row.getUpdatedAt());
+            if (++written % CHUNK_SIZE == 0) {
+                endChunk(writer);
+            }
+        }
+        writer.flush();
+    }
+
+    /** Pushes the chunk to the client and detaches its entities so memory stays flat. */
+    private void endChunk(Flushable output) throws IOException {
+        output.flush();
+        entityManager.clear();
+    }
+
+    private void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvField(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private ProductExportRow toRow(Product product) {
+        return ProductExportRow.builder()
+                .id(product.getId())
+                .slug(product.getSlug())
+                .name(product.getName())
+                .categorySlug(product.getCategorySlug())
+                .brand(product.getBrand())
+                .origin(product.getOrigin())
+                .price(product.getPrice())
+                .originalPrice(product.getOriginalPrice())
+                .stock(product.getStock())
+                .status(product.getStatus())
+                .isFlashSale(product.getIsFlashSale())
+                .flashSaleDiscount(product.getFlashSaleDiscount())
+                .image(product.getImage())
+                .tags(product.getTags() == null ? List.of() : List.copyOf(product.getTags()))
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,473 @@
+package com.freshmart.backend.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.dto.ProductImportStatusDto;
+import com.freshmart.backend.dto.ProductImportStatusDto.RowErrorDto;
+import com.freshmart.backend.dto.ProductUpdateRequest;
+import com.freshmart.backend.dto.ProductUpdateRequest.WeightRequest;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
+import com.freshmart.backend.exception.BadRequestException;
+import com.freshmart.backend.exception.ResourceNotFoundException;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.model.ProductStatus;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.repository.ProductBulkRepository;
+import com.freshmart.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from CSV or JSON (array or one object per line). Uploads are spooled to a temp file
+ * and processed by a single background worker: rows are validated like {@link ProductService#updateProduct},
+ * then upserted by slug in chunks of JDBC batches. A chunk that fails is retried row by row so one bad row
+ * only costs itself. Progress and per-row errors are available by job id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TRACKED_JOBS = 50;
+
+    private final ProductRepository productRepository;
+    private final ProductBulkRepository productBulkRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    });
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format fromContentType(String contentType) {
+            return contentType != null && contentType.toLowerCase().startsWith("text/csv") ? CSV : JSON;
+        }
+    }
+
+    public ProductImportStatusDto submit(Format format, InputStream body, String updatedBy) throws IOException {
+        Path file = Files.createTempFile("product-import-", format == Format.CSV ? ".csv" : ".json");
+        Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        worker.submit(() -> run(job, format, file, updatedBy));
+        return job.toDto();
+    }
+
+    public ProductImportStatusDto getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with id: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void run(ImportJob job, Format format, Path file, String updatedBy) {
+        job.state = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Category> categories = categoryRepository.findAll();
+            Map<Long, Category> categoriesById = categories.stream()
+                    .collect(Collectors.toMap(Category::getId, Function.identity()));
+            Map<String, Category> categoriesBySlug = categories.stream()
+                    .collect(Collectors.toMap(Category::getSlug, Function.identity()));
+
+            RowSource rows = format == Format.CSV ? new CsvRowSource(reader) : new JsonRowSource(reader);
+            Map<String, ImportRow> chunk = new LinkedHashMap<>();
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                job.processed.incrementAndGet();
+                String error = row.error() != null ? row.error() : prepare(row.request(), categoriesById, categoriesBySlug);
+                if (error != null) {
+                    job.fail(row, error);
+                    continue;
+                }
+                ImportRow superseded = chunk.put(row.request().getSlug(), row);
+                if (superseded != null) {
+                    job.fail(superseded, "Superseded by row " + row.number() + " with the same slug");
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(job, new ArrayList<>(chunk.values()), updatedBy);
+                    chunk.clear();
+                }
+            }
+            flush(job, new ArrayList<>(chunk.values()), updatedBy);
+
+            categoryService.reconcileProductCounts();
+            job.state = "COMPLETED";
+        } catch (Exception e) {
+            log.warn("Product import {} failed", job.id, e);
+            job.state = "FAILED";
+            job.message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+    }
+
+    /** Fills defaults and resolves the category, then applies the same checks as a product update. */
+    private String prepare(ProductUpdateRequest request, Map<Long, Category> categoriesById, Map<String, Category> categoriesBySlug) {
+        if (request.getStatus() == null && request.getStock() != null) {
+            request.setStatus(request.getStock() > 0 ? ProductStatus.IN_STOCK : ProductStatus.OUT_OF_STOCK);
+        }
+        if (request.getIsFlashSale() == null) {
+            request.setIsFlashSale(false);
+        }
+
+        Category category = request.getCategoryId() != null
+                ? categoriesById.get(request.getCategoryId())
+                : categoriesBySlug.get(request.getCategorySlug());
+        if (category == null) {
+            return "Category not found: " + (request.getCategoryId() != null ? request.getCategoryId() : request.getCategorySlug());
+        }
+        request.setCategoryId(category.getId());
+        request.setCategorySlug(category.getSlug());
+
+        Set<ConstraintViolation<ProductUpdateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            ProductService.validateBusinessRules(request);
+        } catch (BadRequestException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private void flush(ImportJob job, List<ImportRow> rows, String updatedBy) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            write(rows, updatedBy);
+            job.imported.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                job.fail(rows.get(0), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            } else {
+                rows.forEach(row -> flush(job, List.of(row), updatedBy));
+            }
+        }
+    }
+
+    private void write(List<ImportRow> rows, String updatedBy) {
+        List<ProductUpdateRequest> requests = rows.stream().map(ImportRow::request).toList();
+        List<String> slugs = requests.stream().map(ProductUpdateRequest::getSlug).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, ProductSnapshot> previous = productRepository.findBySlugIn(slugs).stream()
+                    .collect(Collectors.toMap(Product::getId, ProductSnapshot::of));
+
+            productBulkRepository.upsert(requests, LocalDateTime.now(), updatedBy);
+            Map<String, Long> ids = productBulkRepository.findIdsBySlug(slugs);
+            productBulkRepository.replaceCollections(requests, ids);
+
+            // The batches bypassed the persistence context; reload so listeners see what was written
+            entityManager.clear();
+            for (Product product : productRepository.findAllById(ids.values())) {
+                ProductSnapshot before = previous.get(product.getId());
+                eventPublisher.publishEvent(before == null
+                        ? ProductChangedEvent.created(product)
+                        : ProductChangedEvent.updated(product, before));
+            }
+            entityManager.clear();
+        });
+    }
+
+    private record ImportRow(int number, ProductUpdateRequest request, String error) {
+    }
+
+    private interface RowSource {
+        /** Next row, or null at the end of the input. */
+        ImportRow next() throws IOException;
+    }
+
+    private class JsonRowSource implements RowSource {
+
+        private final MappingIterator<ProductUpdateRequest> iterator;
+        private int number;
+
+        JsonRowSource(Reader reader) throws IOException {
+            this.iterator = objectMapper.readerFor(ProductUpdateRequest.class).readValues(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (!iterator.hasNextValue()) {
+                return null;
+            }
+            number++;
+            try {
+                return new ImportRow(number, iterator.nextValue(), null);
+            } catch (JsonMappingException e) {
+                // The iterator skips the rest of the broken object; syntax errors still end the job
+                return new ImportRow(number, new ProductUpdateRequest(), e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row. List columns (images, tags, promotions) are separated by {@code |},
+     * weights are written as {@code value:price|value:price}.
+     */
+    private static class CsvRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private int number;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().replace("\uFEFF", ""), i);
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            number++;
+            try {
+                return new ImportRow(number, toRequest(record), null);
+            } catch (IllegalArgumentException e) {
+                return new ImportRow(number, new ProductUpdateRequest(), e.getMessage());
+            }
+        }
+
+        private ProductUpdateRequest toRequest(List<String> record) {
+            ProductUpdateRequest request = new ProductUpdateRequest();
+            request.setName(text(record, "name"));
+            request.setSlug(text(record, "slug"));
+            request.setDescription(text(record, "description"));
+            request.setPrice(parse(record, "price", BigDecimal::new));
+            request.setOriginalPrice(parse(record, "originalPrice", BigDecimal::new));
+            request.setImage(text(record, "image"));
+            request.setImages(list(record, "images"));
+            request.setCategoryId(parse(record, "categoryId", Long::valueOf));
+            request.setCategorySlug(text(record, "categorySlug"));
+            request.setBrand(text(record, "brand"));
+            request.setOrigin(text(record, "origin"));
+            request.setStock(parse(record, "stock", Integer::valueOf));
+            request.setSold(parse(record, "sold", Integer::valueOf));
+            request.setStatus(parse(record, "status", value -> ProductStatus.valueOf(value.toUpperCase())));
+            request.setIsFlashSale(parse(record, "isFlashSale", Boolean::valueOf));
+            request.setFlashSaleDiscount(parse(record, "flashSaleDiscount", Integer::valueOf));
+            request.setFlashSaleStart(parse(record, "flashSaleStart", LocalDateTime::parse));
+            request.setFlashSaleEnd(parse(record, "flashSaleEnd", LocalDateTime::parse));
+            request.setWeights(parse(record, "weights", CsvRowSource::weights));
+            request.setTags(list(record, "tags"));
+            request.setPromotions(list(record, "promotions"));
+            request.setIngredients(text(record, "ingredients"));
+            request.setExpiry(text(record, "expiry"));
+            request.setRating(parse(record, "rating", Double::valueOf));
+            request.setReviewCount(parse(record, "reviewCount", Integer::valueOf));
+            return request;
+        }
+
+        private String text(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isBlank()) {
+                return null;
+            }
+            return record.get(index).trim();
+        }
+
+        private <T> T parse(List<String> record, String column, Function<String, T> parser) {
+            String value = text(record, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid value for " + column + ": " + value);
+            }
+        }
+
+        private List<String> list(List<String> record, String column) {
+            String value = text(record, column);
+            return value == null ? null : Arrays.stream(value.split("\\|"))
+                    .map(String::trim)
+                    .filter(item -> !item.isEmpty())
+                    .toList();
+        }
+
+        private static List<WeightRequest> weights(String value) {
+            return Arrays.stream(value.split("\\|"))
+                    .map(String::trim)
+                    .filter(item -> !item.isEmpty())
+                    .map(item -> {
+                        int separator = item.lastIndexOf(':');
+                        WeightRequest weight = new WeightRequest();
+                        weight.setValue(item.substring(0, separator).trim());
+                        weight.setPrice(new BigDecimal(item.substring(separator + 1).trim()));
+                        return weight;
+                    })
+                    .toList();
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class ImportJob {
+
+        private final String id;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<RowErrorDto> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String state = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        void fail(ImportRow row, String error) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(RowErrorDto.builder()
+                        .row(row.number())
+                        .slug(row.request().getSlug())
+                        .message(error)
+                        .build());
+            }
+        }
+
+        ProductImportStatusDto toDto() {
+            List<RowErrorDto> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return ProductImportStatusDto.builder()
+                    .jobId(id)
+                    .state(state)
+                    .processedRows(processed.get())
+                    .importedRows(imported.get())
+                    .failedRows(failed.get())
+                    .errors(reported)
+                    .errorsTruncated(failed.get() > reported.size())
+                    .message(message)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,20 +1,50 @@
 package com.freshmart.backend.service;
 
+import com.freshmart.backend.cache.CacheStats;
+import com.freshmart.backend.cache.CategoryPageCache;
+import com.freshmart.backend.cache.CategoryPageCache.PageKey;
+import com.freshmart.backend.cache.ProductDetailCache;
+import com.freshmart.backend.catalog.BestSellerLeaderboard;
+import com.freshmart.backend.catalog.CatalogEngine;
+import com.freshmart.backend.catalog.CatalogPage;
+import com.freshmart.backend.catalog.CatalogSortField;
+import com.freshmart.backend.catalog.CoPurchaseGraph;
+import com.freshmart.backend.catalog.FlashSaleScheduler;
+import com.freshmart.backend.catalog.ProductCursor;
+import com.freshmart.backend.catalog.StockReservationLedger;
+import com.freshmart.backend.dto.ProductCardDto;
+import com.freshmart.backend.dto.ProductCursorPageDto;
 import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.dto.PriceStatsDto;
+import com.freshmart.backend.dto.ProductFacetsDto;
 import com.freshmart.backend.dto.ProductDetailDto.CategorySummaryDto;
+import com.freshmart.backend.dto.ProductDetailDto.WeightDto;
 import com.freshmart.backend.dto.ProductUpdateRequest;
+import com.freshmart.backend.dto.SuggestionDto;
+import com.freshmart.backend.event.CategoryChangedEvent;
+import com.freshmart.backend.event.ProductChangedEvent;
+import com.freshmart.backend.event.ProductSnapshot;
 import com.freshmart.backend.exception.BadRequestException;
+import com.freshmart.backend.exception.OutOfStockException;
 import com.freshmart.backend.exception.ResourceNotFoundException;
+import com.freshmart.backend.exception.ServiceUnavailableException;
 import com.freshmart.backend.model.Category;
 import com.freshmart.backend.model.Product;
 import com.freshmart.backend.model.ProductStatus;
 import com.freshmart.backend.repository.CategoryRepository;
 import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.ProductStockRepository;
+import com.freshmart.backend.repository.ProductStockRepository.StockLevel;
+import com.freshmart.backend.repository.ProductSpecifications;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -22,22 +52,56 @@ import org.springframework.util.CollectionUtils;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final int BEST_SELLER_LIMIT = 8;
+    private static final int MAX_PRICE_BUCKETS = 100;
     
     private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final StockReservationLedger stockReservationLedger;
     private final CategoryRepository categoryRepository;
+    private final CatalogEngine catalogEngine;
+    private final BestSellerLeaderboard bestSellerLeaderboard;
+    private final CoPurchaseGraph coPurchaseGraph;
+    private final FlashSaleScheduler flashSaleScheduler;
+    private final ProductDetailCache productDetailCache;
+    private final CategoryPageCache categoryPageCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     
     @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public Page<ProductDetailDto> getProductsWithFilters(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            int page,
+            int size
+    ) {
+        return findWithFilters(
+                category, search, minPrice, maxPrice, origin, brand, inStock, sortBy, sortOrder, page, size,
+                this::loadDetailsInOrder, this::mapToProductDetailDto
+        );
     }
-    
+
     @Transactional(readOnly = true)
-    public Page<ProductDetailDto> getProductsWithFilters(
+    public Page<ProductCardDto> getProductCardsWithFilters(
             String category,
             String search,
             BigDecimal minPrice,
@@ -50,14 +114,52 @@ public class ProductService {
             int page,
             int size
     ) {
-        Sort sort = Sort.by(Sort.Direction.fromString(sortOrder.toUpperCase()), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Page<Product> productPage = productRepository.findWithFilters(
-                category, search, minPrice, maxPrice, origin, brand, inStock, pageable
+        return findWithFilters(
+                category, search, minPrice, maxPrice, origin, brand, inStock, sortBy, sortOrder, page, size,
+                this::loadCardsInOrder, this::mapToProductCardDto
+        );
+    }
+    
+    @Transactional(readOnly = true)
+    public ProductCursorPageDto<ProductDetailDto> getProductsAfterCursor(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            String after,
+            int size,
+            boolean includeTotal
+    ) {
+        return findAfterCursor(
+                category, search, minPrice, maxPrice, origin, brand, inStock, sortBy, sortOrder, after, size,
+                includeTotal, this::mapToProductDetailDto
         );
+    }
 
-        return productPage.map(this::mapToProductDetailDto);
+    @Transactional(readOnly = true)
+    public ProductCursorPageDto<ProductCardDto> getProductCardsAfterCursor(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            String after,
+            int size,
+            boolean includeTotal
+    ) {
+        return findAfterCursor(
+                category, search, minPrice, maxPrice, origin, brand, inStock, sortBy, sortOrder, after, size,
+                includeTotal, this::mapToProductCardDto
+        );
     }
     
     @Transactional(readOnly = true)
@@ -65,11 +167,26 @@ public class ProductService {
         return productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
+    
+    /**
+     * Loads several products with one IN query; their collections stay lazy (batch-fetched if touched).
+     *
+     * @throws ResourceNotFoundException if any id does not exist
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Long> missing = ids.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Products not found with ids: " + missing);
+        }
+        return products;
+    }
 
     @Transactional(readOnly = true)
     public ProductDetailDto getProductDetail(Long id) {
-        Product product = getProductById(id);
-        return mapToProductDetailDto(product);
+        return productDetailCache.getById(id, key -> mapToProductDetailDto(getProductById(key)));
     }
     
     @Transactional(readOnly = true)
@@ -77,40 +194,122 @@ public class ProductService {
         return productRepository.findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with slug: " + slug));
     }
-    
+
     @Transactional(readOnly = true)
-    public List<Product> getProductsByCategory(String categorySlug) {
-        return productRepository.findByCategorySlugOrderBySoldDesc(categorySlug);
+    public ProductDetailDto getProductDetailBySlug(String slug) {
+        return productDetailCache.getBySlug(slug, key -> mapToProductDetailDto(getProductBySlug(key)));
+    }
+    
+    public Page<ProductCardDto> getProductsByCategory(String categorySlug, String sortBy, String sortOrder, int page, int size) {
+        CatalogSortField sortField = CatalogSortField.fromProperty(sortBy);
+        if (sortField == null || sortField == CatalogSortField.RELEVANCE) {
+            throw new BadRequestException("Unsupported sort field for category listing: " + sortBy);
+        }
+        PageKey key = new PageKey(
+                categorySlug, sortField.getProperty(), "desc".equalsIgnoreCase(sortOrder) ? "desc" : "asc", page, size
+        );
+        return categoryPageCache.get(key, () -> loadCategoryPage(key));
+    }
+    
+    public List<ProductCardDto> getFlashSaleProducts() {
+        if (flashSaleScheduler.isReady()) {
+            return flashSaleScheduler.snapshot();
+        }
+        return productRepository.findFlashSaleCards(LocalDateTime.now());
+    }
+    
+    /** Read before the listing itself, so an entry keyed on a version never holds an older listing. */
+    public String getFlashSaleListingVersion() {
+        return flashSaleScheduler.listingVersion();
     }
     
     @Transactional(readOnly = true)
-    public List<Product> getFlashSaleProducts() {
-        return productRepository.findByIsFlashSaleTrueAndFlashSaleEndAfterOrderBySoldDesc(LocalDateTime.now());
+    public List<ProductCardDto> getBestSellingProducts() {
+        if (bestSellerLeaderboard.isReady()) {
+            return loadCardsInOrder(bestSellerLeaderboard.top(null, BEST_SELLER_LIMIT));
+        }
+        return productRepository.findTopCardsBySold(PageRequest.of(0, BEST_SELLER_LIMIT));
     }
     
+    /** Products most often bought together with {@code slug}; empty until order history has been mined. */
     @Transactional(readOnly = true)
-    public List<Product> getBestSellingProducts() {
-        return productRepository.findTop8ByOrderBySoldDesc();
+    public List<ProductCardDto> getRelatedProducts(String slug, int limit) {
+        Long productId = getProductDetailBySlug(slug).getId();
+        List<Long> ids = coPurchaseGraph.neighbours(productId, limit).stream()
+                .map(CoPurchaseGraph.Neighbour::productId)
+                .toList();
+        return loadCardsInOrder(ids);
     }
     
     @Transactional(readOnly = true)
     public List<String> getAllOrigins() {
-        return productRepository.findAllOrigins();
+        return catalogEngine.isReady() ? catalogEngine.origins() : productRepository.findAllOrigins();
     }
     
     @Transactional(readOnly = true)
     public List<String> getAllBrands() {
-        return productRepository.findAllBrands();
+        return catalogEngine.isReady() ? catalogEngine.brands() : productRepository.findAllBrands();
+    }
+    
+    /** Typeahead needs the in-memory prefix index; until it is loaded there are no suggestions. */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return catalogEngine.isReady() ? catalogEngine.suggest(prefix, limit) : List.of();
+    }
+
+    public ProductFacetsDto getProductFacets(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock
+    ) {
+        if (!catalogEngine.isReady()) {
+            throw new ServiceUnavailableException("Product facets are not available yet, please retry shortly");
+        }
+        return catalogEngine.facets(category, search, minPrice, maxPrice, origin, brand, inStock);
+    }
+    
+    public PriceStatsDto getPriceStats(
+            String category,
+            String search,
+            String origin,
+            String brand,
+            Boolean inStock,
+            int buckets
+    ) {
+        if (buckets < 1 || buckets > MAX_PRICE_BUCKETS) {
+            throw new BadRequestException("buckets must be between 1 and " + MAX_PRICE_BUCKETS);
+        }
+        if (!catalogEngine.isReady()) {
+            throw new ServiceUnavailableException("Price statistics are not available yet, please retry shortly");
+        }
+        return catalogEngine.priceStats(category, search, origin, brand, inStock, buckets);
+    }
+    
+    public Map<String, CacheStats> getDetailCacheStats() {
+        return productDetailCache.stats();
     }
     
     @Transactional
-    public Product createProduct(Product product) {
-        return productRepository.save(product);
+    public ProductDetailDto createProduct(Product product) {
+        if (product.getCategory() != null) {
+            Long categoryId = product.getCategory().getId();
+            product.setCategory(categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId)));
+        }
+        Product saved = productRepository.save(product);
+        moveCategoryCount(null, saved.getCategory());
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return mapToProductDetailDto(saved);
     }
     
     @Transactional
     public ProductDetailDto updateProduct(Long id, ProductUpdateRequest request, String updatedBy) {
         Product product = getProductById(id);
+        ProductSnapshot previous = ProductSnapshot.of(product);
+        Category previousCategory = product.getCategory();
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
 
@@ -129,12 +328,25 @@ public class ProductService {
         product.setOrigin(request.getOrigin());
         product.setStock(request.getStock());
         product.setStatus(request.getStatus());
+        if (request.getWeights() != null) {
+            product.setWeights(request.getWeights().stream()
+                    .map(weight -> new Product.ProductWeight(weight.getValue(), weight.getPrice()))
+                    .collect(Collectors.toCollection(ArrayList::new)));
+        }
         product.setTags(CollectionUtils.isEmpty(request.getTags()) ? new ArrayList<>() : new ArrayList<>(request.getTags()));
         product.setPromotions(CollectionUtils.isEmpty(request.getPromotions()) ? new ArrayList<>() : new ArrayList<>(request.getPromotions()));
         product.setIngredients(request.getIngredients());
         product.setExpiry(request.getExpiry());
         product.setIsFlashSale(request.getIsFlashSale());
         product.setFlashSaleDiscount(Boolean.TRUE.equals(request.getIsFlashSale()) ? request.getFlashSaleDiscount() : null);
+        // Either end of the window may be moved alone; the window it leaves must still be valid
+        if (request.getFlashSaleStart() != null) {
+            product.setFlashSaleStart(request.getFlashSaleStart());
+        }
+        if (request.getFlashSaleEnd() != null) {
+            product.setFlashSaleEnd(request.getFlashSaleEnd());
+        }
+        validateFlashSaleWindow(product.getFlashSaleStart(), product.getFlashSaleEnd());
         product.setUpdatedBy(updatedBy);
 
         if (request.getSold() != null) {
@@ -150,24 +362,107 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
+        moveCategoryCount(previousCategory, category);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved, previous));
         return mapToProductDetailDto(saved);
     }
     
     @Transactional
     public void deleteProduct(Long id) {
         Product product = getProductById(id);
+        ProductChangedEvent event = ProductChangedEvent.deleted(product);
         productRepository.delete(product);
+        moveCategoryCount(product.getCategory(), null);
+        eventPublisher.publishEvent(event);
     }
     
+    /**
+     * Takes stock for a whole basket with one conditional update per product, sent as a single batch.
+     * All or nothing: an {@link OutOfStockException} rolls back the caller's transaction. The entities are
+     * left untouched; listeners get snapshots carrying the stock and sold values the batch wrote.
+     * In memory reservation mode the units come from {@link StockReservationLedger} instead and reach the
+     * table (and listeners) with its next flush.
+     *
+     * @param products   the basket's products, already loaded by the caller
+     * @param quantities units per product id
+     */
+    @Transactional
+    public void reserveStock(Collection<Product> products, Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new BadRequestException("Quantity must be positive for product " + productId);
+            }
+        });
+        List<Long> failed = stockReservationLedger.isEnabled()
+                ? stockReservationLedger.reserve(quantities)
+                : productStockRepository.decrement(quantities);
+        if (!failed.isEmpty()) {
+            String names = products.stream()
+                    .filter(product -> failed.contains(product.getId()))
+                    .map(Product::getName)
+                    .collect(Collectors.joining(", "));
+            throw new OutOfStockException("Not enough stock for: " + names, failed);
+        }
+        if (!stockReservationLedger.isEnabled()) {
+            publishStockLevels(products);
+        }
+    }
+
+    /** Gives units back, e.g. when an order is cancelled. */
     @Transactional
-    public void updateProductStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        product.setStock(product.getStock() - quantity);
-        product.setSold(product.getSold() + quantity);
-        productRepository.save(product);
+    public void releaseStock(Collection<Product> products, Map<Long, Integer> quantities) {
+        if (stockReservationLedger.isEnabled()) {
+            stockReservationLedger.release(quantities);
+            return;
+        }
+        productStockRepository.increment(quantities);
+        publishStockLevels(products);
+    }
+
+    private void publishStockLevels(Collection<Product> products) {
+        Map<Long, StockLevel> levels = productStockRepository.findLevels(
+                products.stream().map(Product::getId).toList()
+        );
+        for (Product product : products) {
+            StockLevel level = levels.get(product.getId());
+            if (level != null) {
+                ProductSnapshot previous = ProductSnapshot.of(product);
+                eventPublisher.publishEvent(ProductChangedEvent.updated(
+                        previous.withStock(level.stock(), level.sold()), previous
+                ));
+            }
+        }
+    }
+
+    /**
+     * Moves one product between category counters in the current transaction; null means no category.
+     * The counters are bulk-updated, so loaded categories are refreshed to show the new count.
+     */
+    private void moveCategoryCount(Category from, Category to) {
+        Long fromId = from == null ? null : from.getId();
+        Long toId = to == null ? null : to.getId();
+        if (Objects.equals(fromId, toId)) {
+            return;
+        }
+        if (fromId != null) {
+            categoryRepository.adjustProductCount(fromId, -1);
+            refresh(from);
+            eventPublisher.publishEvent(CategoryChangedEvent.countChanged(fromId));
+        }
+        if (toId != null) {
+            categoryRepository.adjustProductCount(toId, 1);
+            refresh(to);
+            eventPublisher.publishEvent(CategoryChangedEvent.countChanged(toId));
+        }
+    }
+
+    private void refresh(Category category) {
+        if (entityManager.contains(category)) {
+            entityManager.refresh(category);
+        }
     }
 
-    private void validateBusinessRules(ProductUpdateRequest request) {
+    static void validateBusinessRules(ProductUpdateRequest request) {
         if (Boolean.TRUE.equals(request.getIsFlashSale()) && request.getFlashSaleDiscount() == null) {
             throw new BadRequestException("Flash sale discount is required when flash sale is enabled");
         }
@@ -176,6 +471,8 @@ public class ProductService {
             request.setFlashSaleDiscount(null);
         }
 
+        validateFlashSaleWindow(request.getFlashSaleStart(), request.getFlashSaleEnd());
+
         if (request.getStock() == 0 && request.getStatus() == ProductStatus.IN_STOCK) {
             throw new BadRequestException("Cannot set status IN_STOCK while stock is zero");
         }
@@ -185,6 +482,178 @@ public class ProductService {
         }
     }
 
+    private static void validateFlashSaleWindow(LocalDateTime start, LocalDateTime end) {
+        if (start != null && end != null && !start.isBefore(end)) {
+            throw new BadRequestException("Flash sale start must be before its end");
+        }
+    }
+
+    private <T> Page<T> findWithFilters(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            int page,
+            int size,
+            Function<List<Long>, List<T>> loadInOrder,
+            Function<Product, T> mapper
+    ) {
+        if (catalogEngine.supports(sortBy)) {
+            CatalogPage catalogPage = catalogEngine.query(
+                    category, search, minPrice, maxPrice, origin, brand, inStock, sortBy, sortOrder, page, size
+            );
+            Pageable pageable = PageRequest.of(page, size);
+            return new PageImpl<>(loadInOrder.apply(catalogPage.productIds()), pageable, catalogPage.totalElements());
+        }
+
+        // The database cannot rank by relevance, so fall back to the default best-seller order
+        String sortProperty = RELEVANCE_SORT.equalsIgnoreCase(sortBy) ? "sold" : sortBy;
+        Sort sort = Sort.by(Sort.Direction.fromString(sortOrder.toUpperCase()), sortProperty);
+        Pageable pageable = PageRequest.of(page, size, sort);
+        
+        Page<Product> productPage = productRepository.findWithFilters(
+                category, search, minPrice, maxPrice, origin, brand, inStock, pageable
+        );
+
+        return productPage.map(mapper);
+    }
+
+    private Page<ProductCardDto> loadCategoryPage(PageKey key) {
+        Pageable pageable = PageRequest.of(key.page(), key.size());
+        if (bestSellerLeaderboard.isReady() && "sold".equals(key.sortBy()) && "desc".equals(key.sortOrder())) {
+            List<Long> ranked = bestSellerLeaderboard.top(key.categorySlug(), (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + key.size()));
+            List<Long> ids = ranked.subList((int) Math.min(pageable.getOffset(), ranked.size()), ranked.size());
+            return new PageImpl<>(loadCardsInOrder(ids), pageable, bestSellerLeaderboard.count(key.categorySlug()));
+        }
+        return findWithFilters(
+                key.categorySlug(), null, null, null, null, null, null, key.sortBy(), key.sortOrder(),
+                key.page(), key.size(), this::loadCardsInOrder, this::mapToProductCardDto
+        );
+    }
+
+    private <T> ProductCursorPageDto<T> findAfterCursor(
+            String category,
+            String search,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String origin,
+            String brand,
+            Boolean inStock,
+            String sortBy,
+            String sortOrder,
+            String after,
+            int size,
+            boolean includeTotal,
+            Function<Product, T> mapper
+    ) {
+        CatalogSortField sortField = CatalogSortField.fromProperty(sortBy);
+        if (sortField == null || sortField == CatalogSortField.RELEVANCE) {
+            throw new BadRequestException("Cursor pagination supports sortBy sold, price, rating or createdAt");
+        }
+        boolean descending = "desc".equalsIgnoreCase(sortOrder);
+        ProductCursor cursor = after == null || after.isBlank() ? null : ProductCursor.decode(after);
+        if (cursor != null && (cursor.sortField() != sortField || cursor.descending() != descending)) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+
+        List<Product> products;
+        boolean hasNext;
+        Long totalItems = null;
+        if (catalogEngine.isReady()) {
+            CatalogPage catalogPage = catalogEngine.queryAfter(
+                    category, search, minPrice, maxPrice, origin, brand, inStock, sortField, descending, cursor, size
+            );
+            products = loadProductsInOrder(catalogPage.productIds());
+            hasNext = catalogPage.hasNext();
+            if (includeTotal) {
+                totalItems = catalogPage.totalElements();
+            }
+        } else {
+            Specification<Product> filters = ProductSpecifications.withFilters(
+                    category, search, minPrice, maxPrice, origin, brand, inStock
+            );
+            Specification<Product> window = cursor == null
+                    ? filters
+                    : filters.and(ProductSpecifications.after(sortField.getProperty(), cursor.typedKey(), cursor.id(), descending));
+            Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Sort sort = Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, "id"));
+
+            // Fetch one extra row to learn whether another page exists without a COUNT query
+            List<Product> rows = productRepository.findBy(window, query -> query.sortBy(sort).limit(size + 1).all());
+            hasNext = rows.size() > size;
+            products = hasNext ? rows.subList(0, size) : rows;
+            if (includeTotal) {
+                totalItems = productRepository.count(filters);
+            }
+        }
+
+        String nextCursor = hasNext && !products.isEmpty()
+                ? ProductCursor.after(products.get(products.size() - 1), sortField, descending).encode()
+                : null;
+        return ProductCursorPageDto.<T>builder()
+                .content(products.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalItems(totalItems)
+                .build();
+    }
+
+    private List<ProductDetailDto> loadDetailsInOrder(List<Long> ids) {
+        return loadProductsInOrder(ids).stream()
+                .map(this::mapToProductDetailDto)
+                .toList();
+    }
+
+    private List<ProductCardDto> loadCardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductCardDto> cardsById = productRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductCardDto::getId, Function.identity()));
+        return ids.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<Product> loadProductsInOrder(List<Long> ids) {
+        Map<Long, Product> productsById = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private ProductCardDto mapToProductCardDto(Product product) {
+        return ProductCardDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .slug(product.getSlug())
+                .price(product.getPrice())
+                .originalPrice(product.getOriginalPrice())
+                .image(product.getImage())
+                .categorySlug(product.getCategorySlug())
+                .brand(product.getBrand())
+                .origin(product.getOrigin())
+                .stock(product.getStock())
+                .sold(product.getSold())
+                .rating(product.getRating())
+                .reviewCount(product.getReviewCount())
+                .status(product.getStatus())
+                .isFlashSale(product.getIsFlashSale())
+                .flashSaleDiscount(product.getFlashSaleDiscount())
+                .flashSaleEnd(product.getFlashSaleEnd())
+                .createdAt(product.getCreatedAt())
+                .build();
+    }
+
+    // Copies the lazy collections: the DTO is serialized after the transaction (and cached), so it must not hold PersistentBags
     private ProductDetailDto mapToProductDetailDto(Product product) {
         return ProductDetailDto.builder()
                 .id(product.getId())
@@ -194,7 +663,7 @@ public class ProductService {
                 .price(product.getPrice())
                 .originalPrice(product.getOriginalPrice())
                 .image(product.getImage())
-                .images(product.getImages() == null ? List.of() : product.getImages())
+                .images(product.getImages() == null ? List.of() : List.copyOf(product.getImages()))
                 .category(CategorySummaryDto.builder()
                         .id(product.getCategory().getId())
                         .name(product.getCategory().getName())
@@ -213,8 +682,16 @@ public class ProductService {
                 .status(product.getStatus())
                 .isFlashSale(product.getIsFlashSale())
                 .flashSaleDiscount(product.getFlashSaleDiscount())
-                .tags(product.getTags() == null ? List.of() : product.getTags())
-                .promotions(product.getPromotions() == null ? List.of() : product.getPromotions())
+                .flashSaleStart(product.getFlashSaleStart())
+                .flashSaleEnd(product.getFlashSaleEnd())
+                .weights(product.getWeights() == null ? List.of() : product.getWeights().stream()
+                        .map(weight -> WeightDto.builder()
+                                .value(weight.getValue())
+                                .price(weight.getPrice())
+                                .build())
+                        .toList())
+                .tags(product.getTags() == null ? List.of() : List.copyOf(product.getTags()))
+                .promotions(product.getPromotions() == null ? List.of() : List.copyOf(product.getPromotions()))
                 .ingredients(product.getIngredients())
                 .expiry(product.getExpiry())
                 .createdAt(product.getCreatedAt())
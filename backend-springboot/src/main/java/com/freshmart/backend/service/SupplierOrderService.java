@@ -9,13 +9,13 @@ import com.freshmart.backend.model.Product;
 import com.freshmart.backend.model.Supplier;
 import com.freshmart.backend.model.SupplierOrder;
 import com.freshmart.backend.model.SupplierOrderItem;
+import com.freshmart.backend.pricing.Vnd;
 import com.freshmart.backend.repository.ProductRepository;
 import com.freshmart.backend.repository.SupplierOrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
@@ -44,29 +44,29 @@ public class SupplierOrderService {
         supplierOrder.setNotes(request.getNotes());
         supplierOrder.setOrderNumber(generateOrderNumber(request));
 
-        BigDecimal total = BigDecimal.ZERO;
+        long total = 0;
 
         for (SupplierOrderItemRequest itemRequest : request.getItems()) {
             Product product = productRepository.findById(itemRequest.getProductId())
                     .orElseThrow(() -> new BadRequestException("Product not found with id: " + itemRequest.getProductId()));
 
-            BigDecimal unitPrice = itemRequest.getUnitPrice();
-            if (unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
+            long unitPrice = Vnd.of(itemRequest.getUnitPrice(), "unitPrice");
+            if (unitPrice <= 0) {
                 throw new BadRequestException("Unit price must be greater than 0");
             }
 
             SupplierOrderItem item = new SupplierOrderItem();
             item.setProduct(product);
             item.setQuantity(itemRequest.getQuantity());
-            item.setUnitPrice(unitPrice);
-            BigDecimal itemTotal = unitPrice.multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            item.setTotalPrice(itemTotal);
+            item.setUnitPrice(itemRequest.getUnitPrice());
+            long itemTotal = Vnd.lineTotal(unitPrice, itemRequest.getQuantity());
+            item.setTotalPrice(Vnd.toBigDecimal(itemTotal));
 
             supplierOrder.addItem(item);
-            total = total.add(itemTotal);
+            total = Vnd.add(total, itemTotal);
         }
 
-        supplierOrder.setTotalAmount(total);
+        supplierOrder.setTotalAmount(Vnd.toBigDecimal(total));
 
         SupplierOrder saved = supplierOrderRepository.save(supplierOrder);
         return mapToResponse(saved);
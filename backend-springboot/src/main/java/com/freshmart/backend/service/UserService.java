@@ -1,9 +1,11 @@
 package com.freshmart.backend.service;
 
+import com.freshmart.backend.event.WishlistChangedEvent;
 import com.freshmart.backend.exception.ResourceNotFoundException;
 import com.freshmart.backend.model.User;
 import com.freshmart.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +18,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<User> getAllUsers() {
@@ -82,7 +85,9 @@ public class UserService {
         
         if (!user.getWishlist().contains(productId)) {
             user.getWishlist().add(productId);
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            eventPublisher.publishEvent(new WishlistChangedEvent(userId));
+            return saved;
         }
         
         return user;
@@ -92,7 +97,9 @@ public class UserService {
     public User removeFromWishlist(Long userId, Long productId) {
         User user = getUserById(userId);
         user.getWishlist().remove(productId);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new WishlistChangedEvent(userId));
+        return saved;
     }
     
     @Transactional
@@ -0,0 +1,44 @@
+package com.freshmart.backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogIndexBucketWidthTest {
+
+    @Test
+    void widensWhenTheAlignedStartNeedsAnExtraBucket() {
+        // 10,000 covers 90,002 VND in 10 buckets, but starting at 10,000 the range spans 11
+        long width = CatalogIndex.bucketWidth(19_999, 110_000, 10);
+
+        assertThat(width).isEqualTo(20_000L);
+        assertThat(CatalogIndex.bucketStart(19_999, width)).isEqualTo(0L);
+        assertThat(CatalogIndex.bucketsSpanned(19_999, 110_000, width)).isEqualTo(6);
+    }
+
+    @Test
+    void keepsTheNarrowestWidthWhenItFits() {
+        assertThat(CatalogIndex.bucketWidth(10_000, 99_999, 10)).isEqualTo(10_000L);
+        assertThat(CatalogIndex.bucketsSpanned(10_000, 99_999, 10_000)).isEqualTo(9);
+        assertThat(CatalogIndex.bucketWidth(5_000, 5_000, 10)).isEqualTo(1L);
+        assertThat(CatalogIndex.bucketsSpanned(5_000, 5_000, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void neverSpansMoreBucketsThanRequested() {
+        for (int bucketCount = 1; bucketCount <= 20; bucketCount++) {
+            for (long min = 0; min <= 200_000; min += 7_919) {
+                for (long max = min; max <= min + 1_000_000; max += 33_331) {
+                    long width = CatalogIndex.bucketWidth(min, max, bucketCount);
+                    long start = CatalogIndex.bucketStart(min, width);
+
+                    assertThat(CatalogIndex.bucketsSpanned(min, max, width))
+                            .as("min=%d max=%d buckets=%d width=%d", min, max, bucketCount, width)
+                            .isLessThanOrEqualTo(bucketCount);
+                    assertThat(start).isLessThanOrEqualTo(min);
+                    assertThat(start % width).isZero();
+                }
+            }
+        }
+    }
+}
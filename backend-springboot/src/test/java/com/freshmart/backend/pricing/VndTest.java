@@ -0,0 +1,25 @@
+package com.freshmart.backend.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VndTest {
+
+    @Test
+    void roundsFilterBoundsInsideTheLongRange() {
+        assertThat(Vnd.toMinorUnits(new BigDecimal("19999.2"), RoundingMode.CEILING)).isEqualTo(20_000L);
+        assertThat(Vnd.toMinorUnits(new BigDecimal("19999.8"), RoundingMode.FLOOR)).isEqualTo(19_999L);
+        assertThat(Vnd.toMinorUnits(null, RoundingMode.FLOOR)).isEqualTo(0L);
+    }
+
+    @Test
+    void clampsFilterBoundsBeyondTheLongRange() {
+        assertThat(Vnd.toMinorUnits(new BigDecimal("1e20"), RoundingMode.CEILING)).isEqualTo(Long.MAX_VALUE);
+        assertThat(Vnd.toMinorUnits(new BigDecimal("-1e20"), RoundingMode.FLOOR)).isEqualTo(Long.MIN_VALUE);
+        assertThat(Vnd.toMinorUnits(new BigDecimal("1e999999999"), RoundingMode.FLOOR)).isEqualTo(Long.MAX_VALUE);
+    }
+}
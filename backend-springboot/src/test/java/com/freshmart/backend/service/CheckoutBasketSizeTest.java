@@ -0,0 +1,145 @@
+package com.freshmart.backend.service;
+
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.model.IdBlocks;
+import com.freshmart.backend.model.Order;
+import com.freshmart.backend.model.OrderItem;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.model.User;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.repository.ProductStockRepository;
+import com.freshmart.backend.repository.UserRepository;
+import com.freshmart.backend.support.CountingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checkouts over growing baskets of distinct products. Whatever the basket size, the order resolves its
+ * products with one lookup and takes their stock with one {@link ProductStockRepository#decrement} batch.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutBasketSizeTest {
+
+    private static final int PRODUCTS = 32;
+    private static final Pattern PRODUCT_LOOKUP = Pattern.compile("^select .* from products \\w+ where .*");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private ProductStockRepository productStockRepository;
+
+    private final List<ProductDetailDto> products = new ArrayList<>();
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = Long.toString(System.nanoTime());
+        Category category = new Category();
+        category.setName("Basket size " + suffix);
+        category.setSlug("basket-size-" + suffix);
+        category.setIcon("🧪");
+        category.setProductCount(0);
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productService.createProduct(product(category, suffix, i)));
+        }
+
+        User user = new User();
+        user.setName("Basket size " + suffix);
+        user.setEmail("basket-size-" + suffix + "@example.com");
+        user.setPhone("09" + suffix.substring(suffix.length() - 8));
+        user.setPassword("not-used");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void checkoutCostDoesNotGrowWithBasketSize() {
+        // Warm up the id blocks and any lazily prepared metadata before measuring
+        checkout(1);
+
+        int single = checkout(1);
+        int medium = checkout(8);
+        int large = checkout(PRODUCTS);
+
+        assertThat(medium).isEqualTo(single);
+        assertThat(large).isEqualTo(single);
+    }
+
+    /** Places one order over the first {@code size} products and returns its statement count. */
+    private int checkout(int size) {
+        Order order = new Order();
+        order.setShippingFee(BigDecimal.valueOf(15_000L));
+        order.setPaymentMethod(Order.PaymentMethod.COD);
+        order.setDeliveryOption(Order.DeliveryOption.SAME_DAY);
+        for (int i = 0; i < size; i++) {
+            order.getItems().add(item(products.get(i)));
+        }
+
+        clearInvocations(productStockRepository);
+        CountingStatementInspector.start();
+        orderService.createOrder(order, userId);
+        List<String> statements = CountingStatementInspector.stopAndCollect().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> !sql.contains(IdBlocks.TABLE))
+                .toList();
+
+        long lookups = statements.stream().filter(sql -> PRODUCT_LOOKUP.matcher(sql).matches()).count();
+        assertThat(lookups).as("product lookups for a basket of %d", size).isEqualTo(1);
+        verify(productStockRepository, times(1)).decrement(argThat(quantities -> quantities.size() == size));
+        verify(productStockRepository, times(1)).decrement(anyMap());
+        return statements.size();
+    }
+
+    private OrderItem item(ProductDetailDto product) {
+        Product reference = new Product();
+        reference.setId(product.getId());
+        OrderItem item = new OrderItem();
+        item.setProduct(reference);
+        item.setQuantity(1);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private Product product(Category category, String suffix, int i) {
+        Product product = new Product();
+        product.setName("Basket size product " + i);
+        product.setSlug("basket-size-" + suffix + "-" + i);
+        product.setPrice(BigDecimal.valueOf(5_000L + i * 1_000L));
+        product.setImage("https://img.example/basket-" + i + ".jpg");
+        product.setCategory(category);
+        product.setCategorySlug(category.getSlug());
+        product.setStock(100);
+        product.setSold(0);
+        return product;
+    }
+}
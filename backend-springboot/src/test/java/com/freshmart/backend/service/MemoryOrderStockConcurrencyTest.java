@@ -0,0 +1,8 @@
+package com.freshmart.backend.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** The same checkout stress with reservations taken from the in-memory ledger and written behind. */
+@SpringBootTest(properties = "inventory.reservation.mode=memory")
+class MemoryOrderStockConcurrencyTest extends OrderStockConcurrencyTest {
+}
@@ -0,0 +1,15 @@
+package com.freshmart.backend.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Memory-mode checkout stress with far fewer pooled connections than checkout threads, so a counter load
+ * that needed a second connection would starve the pool; the short timeout turns that into a failure.
+ */
+@SpringBootTest(properties = {
+        "inventory.reservation.mode=memory",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class MemoryOrderStockSmallPoolTest extends OrderStockConcurrencyTest {
+}
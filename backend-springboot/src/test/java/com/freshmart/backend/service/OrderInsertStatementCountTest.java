@@ -0,0 +1,141 @@
+package com.freshmart.backend.service;
+
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.model.IdBlocks;
+import com.freshmart.backend.model.Order;
+import com.freshmart.backend.model.OrderItem;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.model.User;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.repository.UserRepository;
+import com.freshmart.backend.support.CountingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order and order-item ids come from pooled {@link IdBlocks}, so placing an order costs one order insert and
+ * one batched item insert however many lines it has. With {@code IDENTITY} ids every item would be its own
+ * insert waiting for a generated key, so the item inserts would grow with the basket.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderInsertStatementCountTest {
+
+    private static final int PRODUCTS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<ProductDetailDto> products = new ArrayList<>();
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = Long.toString(System.nanoTime());
+        Category category = new Category();
+        category.setName("Order inserts " + suffix);
+        category.setSlug("order-inserts-" + suffix);
+        category.setIcon("🧪");
+        category.setProductCount(0);
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productService.createProduct(product(category, suffix, i)));
+        }
+
+        User user = new User();
+        user.setName("Order inserts " + suffix);
+        user.setEmail("order-inserts-" + suffix + "@example.com");
+        user.setPhone("09" + suffix.substring(suffix.length() - 8));
+        user.setPassword("not-used");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithOrderLines() {
+        // Warm up the id blocks and any lazily prepared metadata before measuring
+        statementsForOrder(PRODUCTS);
+
+        List<String> small = statementsForOrder(PRODUCTS);
+        List<String> medium = statementsForOrder(15);
+        // Stays within hibernate.jdbc.batch_size (50) so the item rows fit in one batch
+        List<String> large = statementsForOrder(48);
+
+        for (List<String> statements : List.of(small, medium, large)) {
+            assertThat(count(statements, "insert into orders")).isEqualTo(1);
+            assertThat(count(statements, "insert into order_items")).isEqualTo(1);
+        }
+        assertThat(medium.size()).isEqualTo(small.size());
+        assertThat(large.size()).isEqualTo(small.size());
+    }
+
+    /** Statements for one checkout of {@code lines} lines, leaving out id-block refills (one per 50 ids). */
+    private List<String> statementsForOrder(int lines) {
+        Order order = new Order();
+        order.setShippingFee(BigDecimal.valueOf(15_000L));
+        order.setPaymentMethod(Order.PaymentMethod.COD);
+        order.setDeliveryOption(Order.DeliveryOption.SAME_DAY);
+        for (int i = 0; i < lines; i++) {
+            order.getItems().add(item(products.get(i % PRODUCTS)));
+        }
+
+        CountingStatementInspector.start();
+        Order placed = orderService.createOrder(order, userId);
+        List<String> statements = CountingStatementInspector.stopAndCollect();
+
+        assertThat(placed.getId()).isNotNull();
+        assertThat(placed.getItems()).hasSize(lines);
+        return statements.stream()
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains(IdBlocks.TABLE))
+                .toList();
+    }
+
+    private static long count(List<String> statements, String prefix) {
+        return statements.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(prefix))
+                .count();
+    }
+
+    private OrderItem item(ProductDetailDto product) {
+        Product reference = new Product();
+        reference.setId(product.getId());
+        OrderItem item = new OrderItem();
+        item.setProduct(reference);
+        item.setQuantity(1);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private Product product(Category category, String suffix, int i) {
+        Product product = new Product();
+        product.setName("Order inserts product " + i);
+        product.setSlug("order-inserts-" + suffix + "-" + i);
+        product.setPrice(BigDecimal.valueOf(10_000L * (i + 1)));
+        product.setImage("https://img.example/order-inserts-" + i + ".jpg");
+        product.setCategory(category);
+        product.setCategorySlug(category.getSlug());
+        product.setStock(1_000);
+        product.setSold(0);
+        return product;
+    }
+}
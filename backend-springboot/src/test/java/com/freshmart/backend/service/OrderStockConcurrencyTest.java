@@ -0,0 +1,170 @@
+package com.freshmart.backend.service;
+
+import com.freshmart.backend.catalog.StockReservationLedger;
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.exception.OutOfStockException;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.model.Order;
+import com.freshmart.backend.model.OrderItem;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.model.User;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.repository.ProductRepository;
+import com.freshmart.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of parallel checkouts on two hot products, more than their stock can serve. Runs with the
+ * default {@code database} reservations; {@link MemoryOrderStockConcurrencyTest} repeats it in memory mode.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStockConcurrencyTest {
+
+    private static final int CHECKOUTS = 400;
+    private static final int THREADS = 32;
+    private static final int STOCK = 150;
+    private static final int INITIAL_SOLD = 7;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockReservationLedger stockReservationLedger;
+
+    private Long userId;
+    private ProductDetailDto first;
+    private ProductDetailDto second;
+
+    @BeforeEach
+    void seed() {
+        String suffix = Long.toString(System.nanoTime());
+        Category category = new Category();
+        category.setName("Checkout stress " + suffix);
+        category.setSlug("checkout-stress-" + suffix);
+        category.setIcon("🧪");
+        category.setProductCount(0);
+        category = categoryRepository.save(category);
+
+        first = productService.createProduct(product(category, suffix, 1));
+        second = productService.createProduct(product(category, suffix, 2));
+
+        User user = new User();
+        user.setName("Checkout stress " + suffix);
+        user.setEmail("checkout-stress-" + suffix + "@example.com");
+        user.setPhone("09" + suffix.substring(suffix.length() - 8));
+        user.setPassword("not-used");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void parallelCheckoutsNeverOversellAndConserveStock() throws Exception {
+        AtomicInteger placedFirst = new AtomicInteger();
+        AtomicInteger placedSecond = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> checkouts = new ArrayList<>();
+        try {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                // Mixed baskets: one or both products, 1-3 units each, so baskets also contend on row order
+                int firstUnits = i % 3 + 1;
+                int secondUnits = i % 2 == 0 ? 0 : i % 4 + 1;
+                checkouts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(order(firstUnits, secondUnits), userId);
+                        placedFirst.addAndGet(firstUnits);
+                        placedSecond.addAndGet(secondUnits);
+                    } catch (OutOfStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> checkout : checkouts) {
+                checkout.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Memory mode writes stock behind; apply whatever the flush has not applied yet
+        stockReservationLedger.recover();
+
+        assertThat(rejected.get()).isPositive();
+        assertStock(first.getId(), placedFirst.get());
+        assertStock(second.getId(), placedSecond.get());
+    }
+
+    private void assertStock(Long productId, int placed) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getStock()).isGreaterThanOrEqualTo(0);
+        assertThat(product.getSold() + product.getStock()).isEqualTo(INITIAL_SOLD + STOCK);
+        assertThat(product.getSold() - INITIAL_SOLD).isEqualTo(placed);
+    }
+
+    private Order order(int firstUnits, int secondUnits) {
+        Order order = new Order();
+        order.setShippingFee(BigDecimal.valueOf(15_000L));
+        order.setPaymentMethod(Order.PaymentMethod.COD);
+        order.setDeliveryOption(Order.DeliveryOption.SAME_DAY);
+        order.getItems().add(item(first, firstUnits));
+        if (secondUnits > 0) {
+            order.getItems().add(item(second, secondUnits));
+        }
+        return order;
+    }
+
+    private OrderItem item(ProductDetailDto product, int quantity) {
+        Product reference = new Product();
+        reference.setId(product.getId());
+        OrderItem item = new OrderItem();
+        item.setProduct(reference);
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private Product product(Category category, String suffix, int i) {
+        Product product = new Product();
+        product.setName("Checkout stress product " + i);
+        product.setSlug("checkout-stress-" + suffix + "-" + i);
+        product.setPrice(BigDecimal.valueOf(20_000L * i));
+        product.setImage("https://img.example/stress-" + i + ".jpg");
+        product.setCategory(category);
+        product.setCategorySlug(category.getSlug());
+        product.setStock(STOCK);
+        product.setSold(INITIAL_SOLD);
+        return product;
+    }
+}
@@ -0,0 +1,93 @@
+package com.freshmart.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.freshmart.backend.dto.ProductDetailDto;
+import com.freshmart.backend.model.Category;
+import com.freshmart.backend.model.Product;
+import com.freshmart.backend.repository.CategoryRepository;
+import com.freshmart.backend.support.CountingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductListingStatementCountTest {
+
+    private static final int PRODUCTS = 24;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String categorySlug;
+
+    @BeforeEach
+    void seedCategory() {
+        String suffix = Long.toString(System.nanoTime());
+        Category category = new Category();
+        category.setName("Statement count " + suffix);
+        category.setSlug("statement-count-" + suffix);
+        category.setIcon("🧪");
+        category.setProductCount(0);
+        category = categoryRepository.save(category);
+        categorySlug = category.getSlug();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            productService.createProduct(product(category, suffix, i));
+        }
+    }
+
+    @Test
+    void detailListingIssuesTheSameStatementsForAnyPageSize() throws Exception {
+        int small = statementsForPage(4);
+        int large = statementsForPage(20);
+
+        assertThat(small).isPositive();
+        assertThat(large).isEqualTo(small);
+    }
+
+    private int statementsForPage(int size) throws Exception {
+        CountingStatementInspector.start();
+        Page<ProductDetailDto> page = productService.getProductsWithFilters(
+                categorySlug, null, null, null, null, null, null, "price", "asc", 0, size
+        );
+        int statements = CountingStatementInspector.stop();
+
+        assertThat(page.getContent()).hasSize(size);
+        // Serialized after the transaction closed, as the controller and the encoded response cache do
+        String json = objectMapper.writeValueAsString(page.getContent());
+        assertThat(json).contains("tag-0", "promo-0", "https://img.example/0-1.jpg");
+        return statements;
+    }
+
+    private Product product(Category category, String suffix, int i) {
+        Product product = new Product();
+        product.setName("Statement count product " + i);
+        product.setSlug("statement-count-" + suffix + "-" + i);
+        product.setPrice(BigDecimal.valueOf(10_000L + i * 1_000L));
+        product.setImage("https://img.example/" + i + ".jpg");
+        product.setImages(new ArrayList<>(List.of("https://img.example/" + i + "-1.jpg", "https://img.example/" + i + "-2.jpg")));
+        product.setCategory(category);
+        product.setCategorySlug(category.getSlug());
+        product.setStock(10);
+        product.setWeights(new ArrayList<>(List.of(new Product.ProductWeight("500g", BigDecimal.valueOf(10_000L)))));
+        product.setTags(new ArrayList<>(List.of("tag-" + i)));
+        product.setPromotions(new ArrayList<>(List.of("promo-" + i)));
+        return product;
+    }
+}
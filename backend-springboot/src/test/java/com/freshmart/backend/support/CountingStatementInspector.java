@@ -0,0 +1,40 @@
+package com.freshmart.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts statements Hibernate prepares on the calling thread, so background work (cache refreshes,
+ * schedulers) running at the same time does not disturb a test's count. A JDBC batch is prepared once,
+ * so it counts as one statement however many rows it carries.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static int stop() {
+        return stopAndCollect().size();
+    }
+
+    /** Stops counting and returns the SQL prepared since {@link #start()}, in order. */
+    public static List<String> stopAndCollect() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
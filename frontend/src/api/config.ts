@@ -6,6 +6,7 @@ export const API_ENDPOINTS = {
   // Products
   PRODUCTS: '/products',
   PRODUCT_BY_SLUG: (slug: string) => `/products/${slug}`,
+  RELATED_PRODUCTS: (slug: string) => `/products/${slug}/related`,
   PRODUCT_MANAGE_BY_ID: (id: number) => `/products/manage/${id}`,
   PRODUCT_UPDATE: (id: number) => `/products/${id}`,
   PRODUCTS_BY_CATEGORY: (slug: string) => `/products/category/${slug}`,
@@ -13,6 +14,9 @@ export const API_ENDPOINTS = {
   BEST_SELLING_PRODUCTS: '/products/best-selling',
   PRODUCT_ORIGINS: '/products/filters/origins',
   PRODUCT_BRANDS: '/products/filters/brands',
+  PRODUCT_FACETS: '/products/facets',
+  PRODUCT_SUGGEST: '/products/suggest',
+  PRODUCT_PRICE_STATS: '/products/price-stats',
   SUPPLIERS: '/suppliers',
   SUPPLIER_ORDERS: '/supplier-orders',
   
@@ -28,11 +32,13 @@ export const API_ENDPOINTS = {
   UPDATE_ORDER_STATUS: (id: number) => `/orders/${id}/status`,
   CANCEL_ORDER: (id: number) => `/orders/${id}/cancel`,
   ORDER_STATS: '/orders/stats/count',
+  ORDER_INTAKE: (token: string) => `/orders/intake/${token}`,
   
   // Users
   USERS: '/users',
   USER_BY_ID: (id: number) => `/users/${id}`,
   ADD_TO_WISHLIST: (userId: number, productId: number) => `/users/${userId}/wishlist/${productId}`,
   REMOVE_FROM_WISHLIST: (userId: number, productId: number) => `/users/${userId}/wishlist/${productId}`,
+  FOR_YOU: (userId: number) => `/users/${userId}/for-you`,
 };
 
@@ -51,10 +51,63 @@ export interface OrderResponse {
   message?: string;
 }
 
+export interface OrderSummary {
+  id: number;
+  userId: number;
+  status: Order['status'];
+  paymentMethod: Order['paymentMethod'];
+  deliveryOption: Order['deliveryOption'];
+  total: number;
+  shippingFee: number;
+  discount: number;
+  finalTotal: number;
+  items: {
+    productId: number;
+    productName: string;
+    quantity: number;
+    selectedWeight?: string;
+    price: number;
+  }[];
+  estimatedDelivery?: string;
+  createdAt?: string;
+}
+
+export interface OrderIntakeStatus {
+  token: string;
+  state: 'QUEUED' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+  order?: OrderSummary;
+  message?: string;
+  productIds?: number[];
+  queuedAt: string;
+  finishedAt?: string;
+}
+
+export interface OrderIntakeResponse {
+  success: boolean;
+  data: OrderIntakeStatus;
+  message?: string;
+}
+
+// 201 carries the order summary; 202 (async intake) carries the queued ticket
+export interface CreateOrderResponse {
+  success: boolean;
+  data: OrderSummary | OrderIntakeStatus;
+  message?: string;
+}
+
 export const orderService = {
-  // Create order
-  createOrder: async (order: any): Promise<OrderResponse> => {
-    return apiClient.post(API_ENDPOINTS.ORDERS, order);
+  // Create order; pass the same idempotencyKey when retrying so the order is only placed once
+  createOrder: async (order: any, idempotencyKey?: string): Promise<CreateOrderResponse> => {
+    return apiClient.post(API_ENDPOINTS.ORDERS, order, {
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
+    });
+  },
+
+  // Result of an order queued by async intake; waitSeconds holds the request until it finishes (max 30)
+  getOrderIntakeStatus: async (token: string, waitSeconds = 0): Promise<OrderIntakeResponse> => {
+    return apiClient.get(`${API_ENDPOINTS.ORDER_INTAKE(token)}?waitSeconds=${waitSeconds}`, {
+      timeout: (waitSeconds + 10) * 1000,
+    });
   },
 
   // Get user orders
@@ -44,6 +44,8 @@ export interface ProductManagementDetail {
   status: ProductStatus;
   isFlashSale: boolean;
   flashSaleDiscount?: number;
+  flashSaleStart?: string;
+  flashSaleEnd?: string;
   tags: string[];
   promotions: string[];
   ingredients?: string;
@@ -70,6 +72,8 @@ export interface ProductUpdatePayload {
   status: ProductStatus;
   isFlashSale: boolean;
   flashSaleDiscount?: number | null;
+  flashSaleStart?: string | null;
+  flashSaleEnd?: string | null;
   tags?: string[];
   promotions?: string[];
   ingredients?: string;
@@ -78,6 +82,36 @@ export interface ProductUpdatePayload {
   reviewCount?: number;
 }
 
+export interface PriceBucket {
+  min: number;
+  max?: number | null;
+  count: number;
+}
+
+export interface ProductFacets {
+  totalItems: number;
+  categories: Record<string, number>;
+  brands: Record<string, number>;
+  origins: Record<string, number>;
+  availability: { inStock: number; outOfStock: number };
+  priceBuckets: PriceBucket[];
+}
+
+export interface PriceStats {
+  totalItems: number;
+  min: number | null;
+  max: number | null;
+  bucketWidth: number | null;
+  buckets: PriceBucket[];
+}
+
+export interface Suggestion {
+  type: 'product' | 'brand' | 'category';
+  label: string;
+  value: string;
+  sold: number;
+}
+
 export const productService = {
   // Get all products with filters
   getProducts: async (params?: {
@@ -92,6 +126,7 @@ export const productService = {
     sortOrder?: string;
     page?: number;
     size?: number;
+    view?: 'card' | 'detail';
   }): Promise<ProductsResponse> => {
     return apiClient.get(API_ENDPOINTS.PRODUCTS, { params });
   },
@@ -101,9 +136,22 @@ export const productService = {
     return apiClient.get(API_ENDPOINTS.PRODUCT_BY_SLUG(slug));
   },
 
+  // Get products frequently bought together with this one
+  getRelatedProducts: async (slug: string, limit = 10): Promise<ProductsResponse> => {
+    return apiClient.get(API_ENDPOINTS.RELATED_PRODUCTS(slug), { params: { limit } });
+  },
+
   // Get products by category
-  getProductsByCategory: async (categorySlug: string): Promise<ProductsResponse> => {
-    return apiClient.get(API_ENDPOINTS.PRODUCTS_BY_CATEGORY(categorySlug));
+  getProductsByCategory: async (
+    categorySlug: string,
+    params?: { sortBy?: string; sortOrder?: 'asc' | 'desc'; page?: number; size?: number }
+  ): Promise<ProductsResponse> => {
+    return apiClient.get(API_ENDPOINTS.PRODUCTS_BY_CATEGORY(categorySlug), { params });
+  },
+
+  // Personalized "for you" products for a signed-in user
+  getForYouProducts: async (userId: number): Promise<ProductsResponse> => {
+    return apiClient.get(API_ENDPOINTS.FOR_YOU(userId));
   },
 
   // Get flash sale products
@@ -126,6 +174,36 @@ export const productService = {
     return apiClient.get(API_ENDPOINTS.PRODUCT_BRANDS);
   },
 
+  // Get facet counts for the current filters
+  getFacets: async (params?: {
+    category?: string;
+    search?: string;
+    minPrice?: number;
+    maxPrice?: number;
+    origin?: string;
+    brand?: string;
+    inStock?: boolean;
+  }): Promise<{ success: boolean; data: ProductFacets }> => {
+    return apiClient.get(API_ENDPOINTS.PRODUCT_FACETS, { params });
+  },
+
+  // Price range and histogram for the price slider
+  getPriceStats: async (params?: {
+    category?: string;
+    search?: string;
+    origin?: string;
+    brand?: string;
+    inStock?: boolean;
+    buckets?: number;
+  }): Promise<{ success: boolean; data: PriceStats }> => {
+    return apiClient.get(API_ENDPOINTS.PRODUCT_PRICE_STATS, { params });
+  },
+
+  // Typeahead suggestions for the search box
+  suggest: async (q: string, limit = 10): Promise<{ success: boolean; data: Suggestion[] }> => {
+    return apiClient.get(API_ENDPOINTS.PRODUCT_SUGGEST, { params: { q, limit } });
+  },
+
   // Get product detail for management
   getProductForManagement: async (id: number): Promise<ProductManagementResponse> => {
     return apiClient.get(API_ENDPOINTS.PRODUCT_MANAGE_BY_ID(id));
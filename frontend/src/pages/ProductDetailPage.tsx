@@ -36,6 +36,7 @@ const ProductDetailPage: React.FC = () => {
         const relatedRes = await productService.getProducts({
           category: response.data.categorySlug,
           size: 4,
+          view: 'card',
         });
         setRelated(relatedRes.data || []);
       }
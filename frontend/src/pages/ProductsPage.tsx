@@ -44,7 +44,7 @@ const ProductsPage: React.FC = () => {
       setLoading(true);
       setError('');
       
-      const params: any = {};
+      const params: any = { view: 'card' };
       
       if (searchParams.get('category')) params.category = searchParams.get('category');
       if (searchParams.get('search')) params.search = searchParams.get('search');
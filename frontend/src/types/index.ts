@@ -20,6 +20,7 @@ export interface Product {
   status: ProductStatus;
   isFlashSale: boolean;
   flashSaleDiscount?: number;
+  flashSaleStart?: string;
   flashSaleEnd?: string;
   weights?: any[];
   tags?: string[];